@@ -0,0 +1,55 @@
+/**
+ * View của một phần tử trong TemperatureBatchAdapter.
+ * Không sao chép dữ liệu - mọi getter/setter đọc ghi trực tiếp vào các cột của batch.
+ * Timestamp thuộc về cả batch, nên setTimestamp() đổi timestamp của mọi phần tử.
+ */
+public class BatchTemperatureReading implements TemperatureReading {
+
+	private final TemperatureBatchAdapter batch;
+	private final int index;
+
+	public BatchTemperatureReading(TemperatureBatchAdapter batch, int index) {
+		this.batch = batch;
+		this.index = index;
+	}
+
+	@Override
+	public double getCelsius() {
+		return batch.getCelsiusColumn()[index];
+	}
+
+	@Override
+	public String getSensorInfo() {
+		return batch.getSensorInfo(index);
+	}
+
+	@Override
+	public long getTimestamp() {
+		return batch.getTimestamp();
+	}
+
+	@Override
+	public String getStatus() {
+		return batch.statusName(batch.getStatusColumn()[index]);
+	}
+
+	@Override
+	public void setCelsius(double celsius) {
+		batch.getCelsiusColumn()[index] = celsius;
+	}
+
+	@Override
+	public void setSensorInfo(String sensorInfo) {
+		batch.setSensorInfo(index, sensorInfo);
+	}
+
+	@Override
+	public void setTimestamp(long timestamp) {
+		batch.setTimestamp(timestamp);
+	}
+
+	@Override
+	public void setStatus(String status) {
+		batch.getStatusColumn()[index] = batch.statusCode(status);
+	}
+}
@@ -0,0 +1,89 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Giải nén block do GorillaBlockEncoder tạo ra, đọc trực tiếp từ buffer
+ * (kể cả MappedByteBuffer) mà không sao chép.
+ */
+public class GorillaBlockDecoder {
+
+	private final ByteBuffer buffer;
+	private final int baseOffset;
+	private final int count;
+	private long bitPosition;
+
+	public GorillaBlockDecoder(ByteBuffer buffer, int baseOffset, int count) {
+		this.buffer = buffer;
+		this.baseOffset = baseOffset;
+		this.count = count;
+	}
+
+	/**
+	 * Giải nén và chuyển các điểm có timestamp trong [fromTimestamp, toTimestamp] cho consumer.
+	 * Dừng sớm khi đã vượt quá toTimestamp.
+	 */
+	public void decode(int sensorIndex, long fromTimestamp, long toTimestamp, ReadingConsumer consumer) {
+		bitPosition = 0;
+		long timestamp = 0;
+		long delta = 0;
+		long valueBits = 0;
+		int leading = 0;
+		int trailing = 0;
+		for (int i = 0; i < count; i++) {
+			if (i == 0) {
+				timestamp = readBits(64);
+				valueBits = readBits(64);
+			} else {
+				delta += readDeltaOfDelta();
+				timestamp += delta;
+				if (readBits(1) != 0) {
+					if (readBits(1) != 0) {
+						leading = (int) readBits(5);
+						int significant = (int) readBits(6) + 1;
+						trailing = 64 - leading - significant;
+					}
+					valueBits ^= readBits(64 - leading - trailing) << trailing;
+				}
+			}
+			if (timestamp > toTimestamp) {
+				return;
+			}
+			if (timestamp >= fromTimestamp) {
+				consumer.accept(sensorIndex, Double.longBitsToDouble(valueBits), timestamp);
+			}
+		}
+	}
+
+	private long readDeltaOfDelta() {
+		if (readBits(1) == 0) {
+			return 0;
+		}
+		if (readBits(1) == 0) {
+			return readBits(7) - 63;
+		}
+		if (readBits(1) == 0) {
+			return readBits(9) - 255;
+		}
+		if (readBits(1) == 0) {
+			return readBits(12) - 2047;
+		}
+		return readBits(64);
+	}
+
+	private long readBits(int bitCount) {
+		int wordIndex = (int) (bitPosition >>> 6);
+		int offset = (int) (bitPosition & 63);
+		int free = 64 - offset;
+		long word = buffer.getLong(baseOffset + (wordIndex << 3));
+		long result;
+		if (bitCount <= free) {
+			result = (word << offset) >>> (64 - bitCount);
+		} else {
+			int spill = bitCount - free;
+			long high = word & ((1L << free) - 1);
+			long low = buffer.getLong(baseOffset + ((wordIndex + 1) << 3)) >>> (64 - spill);
+			result = (high << spill) | low;
+		}
+		bitPosition += bitCount;
+		return result;
+	}
+}
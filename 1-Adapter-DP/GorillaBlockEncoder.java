@@ -0,0 +1,147 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Nén một block (timestamp, celsius) theo kiểu Gorilla:
+ * - timestamp: delta-of-delta với mã độ dài thay đổi
+ * - giá trị: XOR với giá trị trước, chỉ lưu các bit có nghĩa
+ *
+ * Dữ liệu được ghi dạng chuỗi bit MSB-first trong các word 64 bit.
+ */
+public class GorillaBlockEncoder {
+
+	private ByteBuffer words = ByteBuffer.allocate(256);
+	private int bitPosition;
+
+	private int count;
+	private long firstTimestamp;
+	private long lastTimestamp;
+	private long previousDelta;
+	private long previousValueBits;
+	private int previousLeading = -1;
+	private int previousTrailing;
+
+	public void append(long timestamp, double celsius) {
+		long valueBits = Double.doubleToRawLongBits(celsius);
+		if (count == 0) {
+			writeBits(timestamp, 64);
+			writeBits(valueBits, 64);
+			firstTimestamp = timestamp;
+		} else {
+			long delta = timestamp - lastTimestamp;
+			writeDeltaOfDelta(delta - previousDelta);
+			previousDelta = delta;
+			writeXor(valueBits ^ previousValueBits);
+		}
+		previousValueBits = valueBits;
+		lastTimestamp = timestamp;
+		count++;
+	}
+
+	private void writeDeltaOfDelta(long dod) {
+		if (dod == 0) {
+			writeBits(0b0, 1);
+		} else if (dod >= -63 && dod <= 64) {
+			writeBits(0b10, 2);
+			writeBits(dod + 63, 7);
+		} else if (dod >= -255 && dod <= 256) {
+			writeBits(0b110, 3);
+			writeBits(dod + 255, 9);
+		} else if (dod >= -2047 && dod <= 2048) {
+			writeBits(0b1110, 4);
+			writeBits(dod + 2047, 12);
+		} else {
+			writeBits(0b1111, 4);
+			writeBits(dod, 64);
+		}
+	}
+
+	private void writeXor(long xor) {
+		if (xor == 0) {
+			writeBits(0b0, 1);
+			return;
+		}
+		writeBits(0b1, 1);
+		int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+		int trailing = Long.numberOfTrailingZeros(xor);
+		if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+			// Các bit có nghĩa nằm gọn trong cửa sổ của giá trị trước
+			writeBits(0b0, 1);
+			writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+		} else {
+			int significant = 64 - leading - trailing;
+			writeBits(0b1, 1);
+			writeBits(leading, 5);
+			writeBits(significant - 1, 6);
+			writeBits(xor >>> trailing, significant);
+			previousLeading = leading;
+			previousTrailing = trailing;
+		}
+	}
+
+	private void writeBits(long value, int bitCount) {
+		if (bitCount < 64) {
+			value &= (1L << bitCount) - 1;
+		}
+		ensureCapacity(bitPosition + bitCount);
+		int wordIndex = bitPosition >>> 6;
+		int free = 64 - (bitPosition & 63);
+		if (bitCount <= free) {
+			orWord(wordIndex, value << (free - bitCount));
+		} else {
+			int spill = bitCount - free;
+			orWord(wordIndex, value >>> spill);
+			orWord(wordIndex + 1, value << (64 - spill));
+		}
+		bitPosition += bitCount;
+	}
+
+	private void orWord(int wordIndex, long bits) {
+		int offset = wordIndex << 3;
+		words.putLong(offset, words.getLong(offset) | bits);
+	}
+
+	private void ensureCapacity(int bits) {
+		int bytes = ((bits + 63) >>> 6) << 3;
+		if (bytes > words.capacity()) {
+			ByteBuffer grown = ByteBuffer.allocate(Math.max(bytes, words.capacity() * 2));
+			grown.put(words.array(), 0, words.capacity());
+			words = grown;
+		}
+	}
+
+	/**
+	 * Kích thước block đã mã hóa (byte), làm tròn lên theo word 64 bit.
+	 */
+	public int getByteLength() {
+		return ((bitPosition + 63) >>> 6) << 3;
+	}
+
+	/**
+	 * Buffer chứa dữ liệu đã mã hóa, hợp lệ trong [0, getByteLength()).
+	 */
+	public ByteBuffer getBuffer() {
+		return words;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public long getFirstTimestamp() {
+		return firstTimestamp;
+	}
+
+	public long getLastTimestamp() {
+		return lastTimestamp;
+	}
+
+	public void reset() {
+		Arrays.fill(words.array(), 0, getByteLength(), (byte) 0);
+		bitPosition = 0;
+		count = 0;
+		previousDelta = 0;
+		previousLeading = -1;
+		previousTrailing = 0;
+	}
+}
@@ -26,6 +26,126 @@ public class MonitoringSystem {
 		displayTemperatureReading(reading1);
 		displayTemperatureReading(reading2);
 		displayTemperatureReading(reading3);
+
+		// Chế độ live: giá trị luôn cập nhật theo cảm biến, chỉ chuyển đổi lại khi thay đổi
+		System.out.println("\n=== Live Adapter ===\n");
+		TemperatureReading liveReading = new TemperatureSensorAdapter(sensor2, true);
+		displayTemperatureReading(liveReading);
+		sensor2.setFahrenheit(86.0); // 86°F = 30°C
+		displayTemperatureReading(liveReading);
+		sensor2.setFahrenheit(68.0);
+
+		// Chế độ batch: chuyển đổi cả đội cảm biến trong một lần
+		System.out.println("\n=== Batch Conversion ===\n");
+		LegacyTemperatureSensor[] fleet = { sensor1, sensor2, sensor3 };
+		SensorRegistry registry = new SensorRegistry();
+		TemperatureBatchAdapter batch = new TemperatureBatchAdapter(fleet.length, registry);
+		batch.convert(fleet, new double[fleet.length]);
+		for (int i = 0; i < batch.size(); i++) {
+			displayTemperatureReading(batch.getReading(i));
+		}
+
+		// Pipeline thu thập liên tục: poller -> ring buffer -> thống kê trượt
+		System.out.println("\n=== Streaming Ingestion ===\n");
+		SensorIngestionEngine engine = new SensorIngestionEngine(registry, fleet, 1, 64, 1, 1024, 16);
+		engine.start(10);
+		try {
+			Thread.sleep(200);
+			engine.stop();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		RollingTemperatureStats stats = engine.getStats();
+		for (int id = 0; id < registry.size(); id++) {
+			System.out.printf("%s: min=%.2f°C max=%.2f°C avg=%.2f°C (%d readings)%n",
+					registry.getSensorId(id), stats.getMin(id), stats.getMax(id),
+					stats.getAverage(id), stats.getTotalCount(id));
+		}
+
+		// Cảnh báo theo ngưỡng: chỉ phát sự kiện khi trạng thái thay đổi
+		System.out.println("\n=== Threshold Alerts ===\n");
+		ThresholdAlertEngine alerts = new ThresholdAlertEngine(registry.size(), 2, System.out::println);
+		int freezerId = registry.lookup("WAREHOUSE-C-15");
+		alerts.assignZone(freezerId, 1);
+		alerts.reloadZone(1, new ThresholdProfile(
+				new double[] { -25.0, -15.0 },
+				new String[] { "FREEZER-TOO-COLD", "FREEZER-OK", "FREEZER-THAWING" },
+				0.5));
+		double[] freezerSamples = { -20.0, -15.2, -14.9, -15.1, -14.4, -16.0, -14.0 };
+		for (double celsius : freezerSamples) {
+			alerts.accept(freezerId, celsius, System.currentTimeMillis());
+		}
+
+		// Nhập file CSV xuất từ bộ điều khiển legacy
+		System.out.println("\n=== Bulk Import ===\n");
+		java.nio.file.Path dump = null;
+		try {
+			dump = java.nio.file.Files.createTempFile("legacy-dump", ".csv");
+			java.nio.file.Files.writeString(dump, "sensorId,timestamp,fahrenheit\n"
+					+ "WAREHOUSE-A-01,1700000000000,39.2\n"
+					+ "WAREHOUSE-B-07,1700000000000,68.0\n"
+					+ "WAREHOUSE-C-15,1700000000000,-4.0\n");
+			SensorDumpImporter importer = new SensorDumpImporter(registry, 2);
+			importer.importFile(dump, (sensorIndex, celsius, timestamp) -> System.out.printf(
+					"Imported %s: %.2f°C%n", registry.getSensorId(sensorIndex), celsius));
+			System.out.println("Rows imported: " + importer.getImportedRows()
+					+ ", skipped: " + importer.getSkippedRows());
+		} catch (java.io.IOException e) {
+			System.out.println("Import error: " + e.getMessage());
+		} finally {
+			deleteQuietly(dump);
+		}
+
+		// Lưu lịch sử nhiệt độ vào kho chuỗi thời gian nén
+		System.out.println("\n=== Time-Series Store ===\n");
+		java.nio.file.Path storeDirectory = null;
+		try {
+			storeDirectory = java.nio.file.Files.createTempDirectory("readings");
+		} catch (java.io.IOException e) {
+			System.out.println("Store error: " + e.getMessage());
+			return;
+		}
+		try (TemperatureTimeSeriesStore store = new TemperatureTimeSeriesStore(storeDirectory, 3600)) {
+			long start = System.currentTimeMillis();
+			for (int second = 0; second < 7200; second++) {
+				store.append(freezerId, start + second * 1000L, 4.0 + (second % 60) / 10.0);
+			}
+			store.flush();
+			long[] count = new long[1];
+			store.query(freezerId, start + 1800_000L, start + 1900_000L, (sensorIndex, celsius, timestamp) -> count[0]++);
+			System.out.println("Stored 7200 readings in " + store.getDataSize() + " bytes");
+			System.out.println("Range query returned " + count[0] + " readings");
+
+			// Tổng hợp theo phút/giờ cho dashboard
+			System.out.println("\n=== Rollups ===\n");
+			TemperatureRollup rollup = new TemperatureRollup(registry.size(), 60, 120, 24);
+			store.query(freezerId, start, start + 7200_000L, rollup);
+			rollup.closeUntil(start + 7200_000L);
+			rollup.getHourTier().query(freezerId, 0, Long.MAX_VALUE,
+					(sensorIndex, windowStart, min, max, sum, n) -> System.out.printf(
+							"Hour %s: min=%.2f°C max=%.2f°C avg=%.2f°C (%d readings)%n",
+							new java.util.Date(windowStart), min, max, sum / n, n));
+		} catch (java.io.IOException e) {
+			System.out.println("Store error: " + e.getMessage());
+		} finally {
+			deleteQuietly(storeDirectory.resolve("readings.dat"));
+			deleteQuietly(storeDirectory.resolve("readings.idx"));
+			deleteQuietly(storeDirectory);
+		}
+	}
+
+	/**
+	 * Xóa file/thư mục tạm của demo; nếu chưa xóa được (vd. file còn đang map trên Windows) thì xóa khi thoát
+	 */
+	private static void deleteQuietly(java.nio.file.Path path) {
+		if (path == null) {
+			return;
+		}
+		try {
+			java.nio.file.Files.deleteIfExists(path);
+		} catch (java.io.IOException e) {
+			path.toFile().deleteOnExit();
+		}
 	}
 
 	/**
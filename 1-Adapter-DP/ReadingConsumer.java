@@ -0,0 +1,8 @@
+/**
+ * Callback nhận từng bản ghi từ ReadingRingBuffer.
+ * Dùng tham số nguyên thủy để tránh boxing/cấp phát trên đường nóng.
+ */
+public interface ReadingConsumer {
+
+	public void accept(int sensorIndex, double celsius, long timestamp);
+}
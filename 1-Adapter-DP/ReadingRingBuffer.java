@@ -0,0 +1,93 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring buffer có giới hạn, lock-free (thuật toán bounded MPMC của Vyukov).
+ * Dữ liệu lưu trong các mảng song song nên không cấp phát đối tượng cho mỗi bản ghi.
+ * offer() trả về false khi đầy - bên gọi tự quyết định chờ (backpressure).
+ */
+public class ReadingRingBuffer {
+
+	private final int mask;
+	private final AtomicLongArray sequences;
+	private final int[] sensorIndexes;
+	private final double[] celsiusValues;
+	private final long[] timestamps;
+
+	private final AtomicLong enqueuePosition = new AtomicLong();
+	private final AtomicLong dequeuePosition = new AtomicLong();
+
+	public ReadingRingBuffer(int capacity) {
+		if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+		}
+		this.mask = capacity - 1;
+		this.sequences = new AtomicLongArray(capacity);
+		this.sensorIndexes = new int[capacity];
+		this.celsiusValues = new double[capacity];
+		this.timestamps = new long[capacity];
+		for (int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	public boolean offer(int sensorIndex, double celsius, long timestamp) {
+		long position = enqueuePosition.get();
+		int slot;
+		while (true) {
+			slot = (int) (position & mask);
+			long diff = sequences.get(slot) - position;
+			if (diff == 0) {
+				if (enqueuePosition.compareAndSet(position, position + 1)) {
+					break;
+				}
+				position = enqueuePosition.get();
+			} else if (diff < 0) {
+				return false;
+			} else {
+				position = enqueuePosition.get();
+			}
+		}
+		sensorIndexes[slot] = sensorIndex;
+		celsiusValues[slot] = celsius;
+		timestamps[slot] = timestamp;
+		sequences.set(slot, position + 1);
+		return true;
+	}
+
+	/**
+	 * Lấy tối đa maxItems bản ghi và chuyển cho consumer.
+	 * @return số bản ghi đã xử lý
+	 */
+	public int drain(ReadingConsumer consumer, int maxItems) {
+		int drained = 0;
+		while (drained < maxItems) {
+			long position = dequeuePosition.get();
+			int slot = (int) (position & mask);
+			long diff = sequences.get(slot) - (position + 1);
+			if (diff == 0) {
+				if (!dequeuePosition.compareAndSet(position, position + 1)) {
+					continue;
+				}
+				int sensorIndex = sensorIndexes[slot];
+				double celsius = celsiusValues[slot];
+				long timestamp = timestamps[slot];
+				sequences.set(slot, position + mask + 1);
+				consumer.accept(sensorIndex, celsius, timestamp);
+				drained++;
+			} else if (diff < 0) {
+				break;
+			}
+		}
+		return drained;
+	}
+
+	public int size() {
+		long size = enqueuePosition.get() - dequeuePosition.get();
+		return (int) Math.max(0, Math.min(size, mask + 1));
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+}
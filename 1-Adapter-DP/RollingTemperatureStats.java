@@ -0,0 +1,104 @@
+/**
+ * Thống kê min/max/avg trên cửa sổ trượt gồm windowSize bản ghi gần nhất của mỗi cảm biến.
+ * Mọi dữ liệu nằm trong mảng phẳng đánh chỉ số theo sensorIndex - không cấp phát khi ghi.
+ * Bản ghi không hữu hạn (NaN/Infinity từ cảm biến hỏng) không vào cửa sổ mà chỉ được đếm trong
+ * getFaultCount(); nếu vào, tổng trượt sẽ thành NaN vĩnh viễn.
+ *
+ * Mỗi cảm biến chỉ được ghi bởi một consumer duy nhất (single-writer);
+ * việc đọc từ luồng khác chỉ mang tính tham khảo cho dashboard.
+ */
+public class RollingTemperatureStats implements ReadingConsumer {
+
+	private final int windowSize;
+	private final double[] window;
+	private final int[] cursor;
+	private final int[] filled;
+	private final double[] sum;
+	private final long[] lastTimestamp;
+	private final long[] totalCount;
+	private final long[] faultCount;
+
+	public RollingTemperatureStats(int sensorCount, int windowSize) {
+		this.windowSize = windowSize;
+		this.window = new double[sensorCount * windowSize];
+		this.cursor = new int[sensorCount];
+		this.filled = new int[sensorCount];
+		this.sum = new double[sensorCount];
+		this.lastTimestamp = new long[sensorCount];
+		this.totalCount = new long[sensorCount];
+		this.faultCount = new long[sensorCount];
+	}
+
+	@Override
+	public void accept(int sensorIndex, double celsius, long timestamp) {
+		totalCount[sensorIndex]++;
+		if (!Double.isFinite(celsius)) {
+			faultCount[sensorIndex]++;
+			return;
+		}
+		int base = sensorIndex * windowSize;
+		int position = cursor[sensorIndex];
+		if (filled[sensorIndex] == windowSize) {
+			sum[sensorIndex] -= window[base + position];
+		} else {
+			filled[sensorIndex]++;
+		}
+		window[base + position] = celsius;
+		sum[sensorIndex] += celsius;
+		cursor[sensorIndex] = position + 1 == windowSize ? 0 : position + 1;
+		lastTimestamp[sensorIndex] = timestamp;
+	}
+
+	public double getMin(int sensorIndex) {
+		int base = sensorIndex * windowSize;
+		int count = filled[sensorIndex];
+		double min = Double.NaN;
+		for (int i = 0; i < count; i++) {
+			double value = window[base + i];
+			if (i == 0 || value < min) {
+				min = value;
+			}
+		}
+		return min;
+	}
+
+	public double getMax(int sensorIndex) {
+		int base = sensorIndex * windowSize;
+		int count = filled[sensorIndex];
+		double max = Double.NaN;
+		for (int i = 0; i < count; i++) {
+			double value = window[base + i];
+			if (i == 0 || value > max) {
+				max = value;
+			}
+		}
+		return max;
+	}
+
+	public double getAverage(int sensorIndex) {
+		int count = filled[sensorIndex];
+		return count == 0 ? Double.NaN : sum[sensorIndex] / count;
+	}
+
+	public long getLastTimestamp(int sensorIndex) {
+		return lastTimestamp[sensorIndex];
+	}
+
+	/**
+	 * Tổng số bản ghi đã nhận, kể cả bản ghi lỗi
+	 */
+	public long getTotalCount(int sensorIndex) {
+		return totalCount[sensorIndex];
+	}
+
+	/**
+	 * Số bản ghi không hữu hạn đã bị loại khỏi cửa sổ
+	 */
+	public long getFaultCount(int sensorIndex) {
+		return faultCount[sensorIndex];
+	}
+
+	public int getSensorCount() {
+		return cursor.length;
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * Callback nhận một cửa sổ tổng hợp (rollup) đã đóng.
+ */
+public interface RollupConsumer {
+
+	public void accept(int sensorIndex, long windowStart, double min, double max, double sum, long count);
+}
@@ -0,0 +1,194 @@
+/**
+ * Một tầng tổng hợp (vd. 1 giây, 1 phút, 1 giờ) cho mọi cảm biến.
+ *
+ * - Cửa sổ đang mở của mỗi cảm biến được cập nhật O(1) cho mỗi bản ghi
+ * - Khi cửa sổ đóng, kết quả được ghi vào vùng lưu trữ vòng (mảng phẳng, giữ
+ *   retention cửa sổ gần nhất mỗi cảm biến) và chuyển tiếp lên tầng kế tiếp
+ *
+ * Dữ liệu trễ (thuộc cửa sổ trước cửa sổ đang mở, hoặc cửa sổ đã đóng) bị bỏ qua và được đếm
+ * trong getLateCount(), vì cửa sổ đã đóng đã được chuyển lên tầng kế tiếp.
+ */
+public class RollupTier {
+
+	private final long windowMillis;
+	private final int retention;
+	private final RollupTier nextTier;
+
+	// Cửa sổ đang mở, đánh chỉ số theo sensorIndex
+	private final long[] openStart;
+	private final double[] openMin;
+	private final double[] openMax;
+	private final double[] openSum;
+	private final long[] openCount;
+
+	// Cửa sổ đã đóng: vùng vòng [sensorIndex * retention, (sensorIndex + 1) * retention)
+	private final long[] closedStart;
+	private final double[] closedMin;
+	private final double[] closedMax;
+	private final double[] closedSum;
+	private final long[] closedCount;
+	private final int[] closedHead;
+	private final int[] closedSize;
+
+	private long lateCount;
+
+	public RollupTier(int sensorCount, long windowMillis, int retention, RollupTier nextTier) {
+		if (windowMillis <= 0) {
+			throw new IllegalArgumentException("windowMillis must be positive: " + windowMillis);
+		}
+		if (retention <= 0) {
+			throw new IllegalArgumentException("retention must be positive: " + retention);
+		}
+		this.windowMillis = windowMillis;
+		this.retention = retention;
+		this.nextTier = nextTier;
+		this.openStart = new long[sensorCount];
+		this.openMin = new double[sensorCount];
+		this.openMax = new double[sensorCount];
+		this.openSum = new double[sensorCount];
+		this.openCount = new long[sensorCount];
+		int slots = sensorCount * retention;
+		this.closedStart = new long[slots];
+		this.closedMin = new double[slots];
+		this.closedMax = new double[slots];
+		this.closedSum = new double[slots];
+		this.closedCount = new long[slots];
+		this.closedHead = new int[sensorCount];
+		this.closedSize = new int[sensorCount];
+	}
+
+	/**
+	 * Gộp một tổng hợp (hoặc một bản ghi đơn: min = max = sum, count = 1) vào cửa sổ chứa timestamp.
+	 */
+	public void add(int sensorIndex, long timestamp, double min, double max, double sum, long count) {
+		long start = timestamp - Math.floorMod(timestamp, windowMillis);
+		if (isLate(sensorIndex, start)) {
+			lateCount += count;
+			return;
+		}
+		if (openCount[sensorIndex] == 0) {
+			openStart[sensorIndex] = start;
+			openMin[sensorIndex] = min;
+			openMax[sensorIndex] = max;
+			openSum[sensorIndex] = sum;
+			openCount[sensorIndex] = count;
+			return;
+		}
+		if (start > openStart[sensorIndex]) {
+			close(sensorIndex);
+			openStart[sensorIndex] = start;
+			openMin[sensorIndex] = min;
+			openMax[sensorIndex] = max;
+			openSum[sensorIndex] = sum;
+			openCount[sensorIndex] = count;
+			return;
+		}
+		openMin[sensorIndex] = Math.min(openMin[sensorIndex], min);
+		openMax[sensorIndex] = Math.max(openMax[sensorIndex], max);
+		openSum[sensorIndex] += sum;
+		openCount[sensorIndex] += count;
+	}
+
+	private boolean isLate(int sensorIndex, long start) {
+		if (openCount[sensorIndex] > 0) {
+			return start < openStart[sensorIndex];
+		}
+		int size = closedSize[sensorIndex];
+		if (size == 0) {
+			return false;
+		}
+		int lastSlot = sensorIndex * retention + (closedHead[sensorIndex] + size - 1) % retention;
+		return start <= closedStart[lastSlot];
+	}
+
+	/**
+	 * Đóng mọi cửa sổ đang mở kết thúc trước hoặc tại timestamp (dùng khi cảm biến im lặng).
+	 */
+	public void closeUntil(long timestamp) {
+		for (int sensorIndex = 0; sensorIndex < openCount.length; sensorIndex++) {
+			if (openCount[sensorIndex] > 0 && openStart[sensorIndex] + windowMillis <= timestamp) {
+				close(sensorIndex);
+			}
+		}
+		if (nextTier != null) {
+			nextTier.closeUntil(timestamp);
+		}
+	}
+
+	private void close(int sensorIndex) {
+		int base = sensorIndex * retention;
+		int slot = base + (closedHead[sensorIndex] + closedSize[sensorIndex]) % retention;
+		if (closedSize[sensorIndex] == retention) {
+			closedHead[sensorIndex] = (closedHead[sensorIndex] + 1) % retention;
+		} else {
+			closedSize[sensorIndex]++;
+		}
+		closedStart[slot] = openStart[sensorIndex];
+		closedMin[slot] = openMin[sensorIndex];
+		closedMax[slot] = openMax[sensorIndex];
+		closedSum[slot] = openSum[sensorIndex];
+		closedCount[slot] = openCount[sensorIndex];
+
+		if (nextTier != null) {
+			nextTier.add(sensorIndex, openStart[sensorIndex], openMin[sensorIndex], openMax[sensorIndex],
+					openSum[sensorIndex], openCount[sensorIndex]);
+		}
+		openCount[sensorIndex] = 0;
+	}
+
+	/**
+	 * Liệt kê các cửa sổ có windowStart trong [fromTimestamp, toTimestamp] theo thứ tự thời gian,
+	 * gồm cả cửa sổ đang mở (chưa hoàn chỉnh) ở cuối.
+	 */
+	public void query(int sensorIndex, long fromTimestamp, long toTimestamp, RollupConsumer consumer) {
+		int base = sensorIndex * retention;
+		int head = closedHead[sensorIndex];
+		int size = closedSize[sensorIndex];
+
+		// Tìm nhị phân cửa sổ đầu tiên >= fromTimestamp trên vùng vòng đã sắp xếp
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (closedStart[base + (head + mid) % retention] < fromTimestamp) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		for (int i = low; i < size; i++) {
+			int slot = base + (head + i) % retention;
+			if (closedStart[slot] > toTimestamp) {
+				return;
+			}
+			consumer.accept(sensorIndex, closedStart[slot], closedMin[slot], closedMax[slot],
+					closedSum[slot], closedCount[slot]);
+		}
+		long start = openStart[sensorIndex];
+		if (openCount[sensorIndex] > 0 && start >= fromTimestamp && start <= toTimestamp) {
+			consumer.accept(sensorIndex, start, openMin[sensorIndex], openMax[sensorIndex],
+					openSum[sensorIndex], openCount[sensorIndex]);
+		}
+	}
+
+	public int getClosedWindowCount(int sensorIndex) {
+		return closedSize[sensorIndex];
+	}
+
+	/**
+	 * Số bản ghi trễ đã bị bỏ qua (tính theo count của tổng hợp)
+	 */
+	public long getLateCount() {
+		return lateCount;
+	}
+
+	public long getWindowMillis() {
+		return windowMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "RollupTier[window=" + windowMillis + "ms, retention=" + retention
+				+ ", sensors=" + openCount.length + ", late=" + lateCount + "]" + (nextTier == null ? "" : " -> " + nextTier);
+	}
+}
@@ -0,0 +1,365 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nhập hàng loạt file CSV do bộ điều khiển legacy xuất ra: mỗi dòng "sensorId,timestamp,fahrenheit".
+ *
+ * - File được memory-map và chia thành các đoạn tại ranh giới dòng, mỗi đoạn được phân tích song song
+ * - Số được phân tích trực tiếp từ byte, không tạo String cho mỗi dòng
+ * - sensorId được tra qua bảng băm theo byte của từng đoạn, chỉ gọi SensorRegistry khi gặp lần đầu
+ * - Kết quả chuyển thẳng sang Celsius và đưa cho ReadingConsumer
+ *
+ * ReadingConsumer được gọi đồng thời từ nhiều luồng nên phải an toàn đa luồng.
+ * Dòng không hợp lệ (vd. dòng tiêu đề) bị bỏ qua và được đếm riêng.
+ */
+public class SensorDumpImporter {
+
+	private static final long MAX_CHUNK_SIZE = 1L << 30;
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private final SensorRegistry registry;
+	private final int parallelism;
+	private final LongAdder importedRows = new LongAdder();
+	private final LongAdder skippedRows = new LongAdder();
+
+	public SensorDumpImporter(SensorRegistry registry, int parallelism) {
+		this.registry = registry;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Nhập toàn bộ file; trả về số dòng đã nhập thành công.
+	 */
+	public long importFile(Path file, ReadingConsumer consumer) throws IOException {
+		importedRows.reset();
+		skippedRows.reset();
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			List<Future<?>> tasks = new ArrayList<>();
+			for (long[] chunk : split(channel)) {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+				tasks.add(executor.submit(() -> parseChunk(buffer, consumer)));
+			}
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Import interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Import failed: " + e.getCause().getMessage(), e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+		return importedRows.sum();
+	}
+
+	/**
+	 * Chia file thành các đoạn [start, end), mỗi đoạn kết thúc ngay sau một ký tự xuống dòng.
+	 */
+	private List<long[]> split(FileChannel channel) throws IOException {
+		long size = channel.size();
+		long chunkCount = Math.max(parallelism, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+		long targetSize = Math.max(1, size / chunkCount);
+		List<long[]> chunks = new ArrayList<>();
+		long start = 0;
+		ByteBuffer probe = ByteBuffer.allocate(4096);
+		while (start < size) {
+			long end = Math.min(size, start + targetSize);
+			// Dời điểm cắt tới sau ký tự '\n' kế tiếp
+			while (end < size) {
+				probe.clear();
+				int read = channel.read(probe, end);
+				int newline = -1;
+				for (int i = 0; i < read; i++) {
+					if (probe.get(i) == '\n') {
+						newline = i;
+						break;
+					}
+				}
+				if (newline >= 0) {
+					end += newline + 1;
+					break;
+				}
+				end += read;
+			}
+			if (end - start > Integer.MAX_VALUE) {
+				throw new IOException("Line too long near offset " + start);
+			}
+			chunks.add(new long[] { start, end });
+			start = end;
+		}
+		return chunks;
+	}
+
+	private void parseChunk(MappedByteBuffer buffer, ReadingConsumer consumer) {
+		ChunkParser parser = new ChunkParser(buffer, new SensorIdCache(registry));
+		long imported = 0;
+		long skipped = 0;
+		while (parser.hasRemaining()) {
+			int result = parser.parseLine(consumer);
+			if (result > 0) {
+				imported++;
+			} else if (result < 0) {
+				skipped++;
+			}
+		}
+		importedRows.add(imported);
+		skippedRows.add(skipped);
+	}
+
+	public long getImportedRows() {
+		return importedRows.sum();
+	}
+
+	public long getSkippedRows() {
+		return skippedRows.sum();
+	}
+
+	/**
+	 * Bộ phân tích một đoạn file: đọc mỗi dòng đúng một lần từ trái sang phải,
+	 * vừa tính băm sensorId vừa phân tích timestamp và nhiệt độ.
+	 */
+	private static class ChunkParser {
+
+		private final ByteBuffer buffer;
+		private final SensorIdCache ids;
+		private final int limit;
+		private int cursor;
+
+		ChunkParser(ByteBuffer buffer, SensorIdCache ids) {
+			this.buffer = buffer;
+			this.ids = ids;
+			this.limit = buffer.limit();
+		}
+
+		boolean hasRemaining() {
+			return cursor < limit;
+		}
+
+		/**
+		 * @return 1 nếu nhập được một dòng, 0 nếu dòng trống, -1 nếu dòng không hợp lệ
+		 */
+		int parseLine(ReadingConsumer consumer) {
+			int idStart = cursor;
+			int hash = 0;
+			byte b = 0;
+			while (cursor < limit && (b = buffer.get(cursor)) != ',' && b != '\n') {
+				hash = 31 * hash + b;
+				cursor++;
+			}
+			if (cursor >= limit || b != ',') {
+				boolean blank = cursor == idStart || (cursor == idStart + 1 && buffer.get(idStart) == '\r');
+				cursor++;
+				return blank ? 0 : -1;
+			}
+			int idEnd = cursor++;
+			if (idEnd == idStart) {
+				return skipLine();
+			}
+
+			long timestamp = parseTimestamp();
+			if (timestamp == Long.MIN_VALUE) {
+				return skipLine();
+			}
+			double fahrenheit = parseFahrenheit();
+			if (Double.isNaN(fahrenheit)) {
+				return skipLine();
+			}
+			skipLine();
+			int sensorIndex = ids.lookup(buffer, idStart, idEnd, hash);
+			consumer.accept(sensorIndex, TemperatureSensorAdapter.toCelsius(fahrenheit), timestamp);
+			return 1;
+		}
+
+		private int skipLine() {
+			while (cursor < limit && buffer.get(cursor++) != '\n') {
+				// bỏ qua phần còn lại của dòng (kể cả '\r')
+			}
+			return -1;
+		}
+
+		/**
+		 * Phân tích số nguyên tới dấu ',' (và bỏ qua dấu đó); Long.MIN_VALUE nếu không hợp lệ.
+		 */
+		private long parseTimestamp() {
+			boolean negative = cursor < limit && buffer.get(cursor) == '-';
+			if (negative) {
+				cursor++;
+			}
+			long value = 0;
+			int digits = 0;
+			while (cursor < limit) {
+				byte b = buffer.get(cursor);
+				if (b == ',') {
+					cursor++;
+					return digits == 0 || digits > 18 ? Long.MIN_VALUE : negative ? -value : value;
+				}
+				int digit = b - '0';
+				if (digit < 0 || digit > 9) {
+					return Long.MIN_VALUE;
+				}
+				value = value * 10 + digit;
+				digits++;
+				cursor++;
+			}
+			return Long.MIN_VALUE;
+		}
+
+		/**
+		 * Phân tích số thực dạng [-]digits[.digits][e[-]digits] tới trước ký tự xuống dòng;
+		 * NaN nếu không hợp lệ. Đường nhanh (mantissa &lt; 2^53, |số mũ| &lt;= 22) làm tròn chính xác
+		 * mà không cấp phát; các trường hợp hiếm còn lại dùng Double.parseDouble.
+		 */
+		private double parseFahrenheit() {
+			int start = cursor;
+			boolean negative = false;
+			if (cursor < limit && (buffer.get(cursor) == '-' || buffer.get(cursor) == '+')) {
+				negative = buffer.get(cursor) == '-';
+				cursor++;
+			}
+			long mantissa = 0;
+			int digits = 0;
+			int decimalExponent = 0;
+			boolean seenDigit = false;
+			boolean seenPoint = false;
+			boolean slow = false;
+			while (cursor < limit) {
+				byte b = buffer.get(cursor);
+				if (b >= '0' && b <= '9') {
+					seenDigit = true;
+					if (mantissa == 0 && b == '0') {
+						if (seenPoint) {
+							decimalExponent--;
+						}
+					} else if (digits >= 18) {
+						slow = true;
+					} else {
+						mantissa = mantissa * 10 + (b - '0');
+						digits++;
+						if (seenPoint) {
+							decimalExponent--;
+						}
+					}
+				} else if (b == '.' && !seenPoint) {
+					seenPoint = true;
+				} else if ((b == 'e' || b == 'E') && seenDigit) {
+					slow = true;
+				} else if (b == '\n' || b == '\r') {
+					break;
+				} else if (!slow) {
+					return Double.NaN;
+				}
+				cursor++;
+			}
+			if (!seenDigit) {
+				return Double.NaN;
+			}
+			if (slow || mantissa >= (1L << 53) || decimalExponent < -22) {
+				return parseSlow(start, cursor);
+			}
+			double value = mantissa == 0 ? 0.0 : mantissa / POWERS_OF_TEN[-decimalExponent];
+			return negative ? -value : value;
+		}
+
+		private double parseSlow(int start, int end) {
+			byte[] bytes = new byte[end - start];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = buffer.get(start + i);
+			}
+			try {
+				return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+			} catch (NumberFormatException e) {
+				return Double.NaN;
+			}
+		}
+	}
+
+	/**
+	 * Bảng băm địa chỉ mở ánh xạ byte của sensorId sang ID trong registry, dùng riêng cho một đoạn.
+	 */
+	private static class SensorIdCache {
+
+		private final SensorRegistry registry;
+		private byte[][] keys = new byte[1024][];
+		private int[] ids = new int[1024];
+		private int size;
+
+		SensorIdCache(SensorRegistry registry) {
+			this.registry = registry;
+		}
+
+		int lookup(ByteBuffer buffer, int start, int end, int hash) {
+			int mask = keys.length - 1;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while (keys[slot] != null) {
+				if (matches(keys[slot], buffer, start, end)) {
+					return ids[slot];
+				}
+				slot = (slot + 1) & mask;
+			}
+			byte[] key = new byte[end - start];
+			for (int i = 0; i < key.length; i++) {
+				key[i] = buffer.get(start + i);
+			}
+			int id = registry.register(new String(key, StandardCharsets.UTF_8));
+			keys[slot] = key;
+			ids[slot] = id;
+			if (++size * 2 > keys.length) {
+				grow();
+			}
+			return id;
+		}
+
+		private static boolean matches(byte[] key, ByteBuffer buffer, int start, int end) {
+			if (key.length != end - start) {
+				return false;
+			}
+			for (int i = 0; i < key.length; i++) {
+				if (key[i] != buffer.get(start + i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void grow() {
+			byte[][] oldKeys = keys;
+			int[] oldIds = ids;
+			keys = new byte[oldKeys.length * 2][];
+			ids = new int[oldKeys.length * 2];
+			int mask = keys.length - 1;
+			for (int i = 0; i < oldKeys.length; i++) {
+				byte[] key = oldKeys[i];
+				if (key == null) {
+					continue;
+				}
+				int hash = 0;
+				for (byte b : key) {
+					hash = 31 * hash + b;
+				}
+				int slot = (hash ^ (hash >>> 16)) & mask;
+				while (keys[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				ids[slot] = oldIds[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,134 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Bộ sinh tải tất định cho đường xử lý của Adapter: giả lập N cảm biến legacy,
+ * mỗi chu kỳ đọc toàn bộ đội qua TemperatureSensorAdapter (chế độ live) và
+ * ThresholdAlertEngine, rồi báo cáo thông lượng và phân vị độ trễ.
+ * Độ trễ được đo riêng cho một bản ghi trong mỗi LATENCY_SAMPLE_INTERVAL bản ghi (vị trí lấy mẫu
+ * xoay vòng theo chu kỳ), vì gọi System.nanoTime() cho mọi bản ghi tốn ngang chính công việc được đo;
+ * mỗi mẫu gồm cả chi phí một lần gọi System.nanoTime() (vài chục ns).
+ *
+ * Cách dùng: java SensorFleetLoadGenerator [sensorCount] [rounds] [spikeRate] [failureRate] [seed]
+ */
+public class SensorFleetLoadGenerator {
+
+	private static final int MAX_LATENCY_SAMPLES = 1 << 20;
+	private static final int LATENCY_SAMPLE_INTERVAL = 64; // lũy thừa của 2
+
+	private final SimulatedSensor[] sensors;
+	private final TemperatureSensorAdapter[] adapters;
+	private final ThresholdAlertEngine alertEngine;
+	private final SplittableRandom samplingRandom;
+
+	private final long[] latencySamples = new long[MAX_LATENCY_SAMPLES];
+	private long recordedCount;
+	private long alertCount;
+	private long faultAlertCount;
+	private long failedReadings;
+
+	public SensorFleetLoadGenerator(int sensorCount, long seed, double spikeRate, double failureRate) {
+		SplittableRandom seeds = new SplittableRandom(seed);
+		SensorRegistry registry = new SensorRegistry();
+		this.sensors = new SimulatedSensor[sensorCount];
+		this.adapters = new TemperatureSensorAdapter[sensorCount];
+		for (int i = 0; i < sensorCount; i++) {
+			// Nhiệt độ gốc phân bố giữa kho lạnh (32°F) và phòng thường (77°F)
+			double baseFahrenheit = 32 + seeds.nextDouble() * 45;
+			sensors[i] = new SimulatedSensor("SIM-" + i, baseFahrenheit, seeds.nextLong(), spikeRate, failureRate);
+			adapters[i] = new TemperatureSensorAdapter(sensors[i], registry, true);
+		}
+		this.alertEngine = new ThresholdAlertEngine(sensorCount, 1, alert -> {
+			if (ThresholdProfile.FAULT_STATUS.equals(alert.getStatus())) {
+				faultAlertCount++;
+			} else {
+				alertCount++;
+			}
+		});
+		this.samplingRandom = new SplittableRandom(seeds.nextLong());
+	}
+
+	/**
+	 * Chạy rounds chu kỳ; mỗi chu kỳ mọi cảm biến tạo một bản ghi.
+	 */
+	public void run(int rounds) {
+		long startNanos = System.nanoTime();
+		for (int round = 0; round < rounds; round++) {
+			for (SimulatedSensor sensor : sensors) {
+				sensor.tick();
+			}
+			for (int i = 0; i < adapters.length; i++) {
+				if (((i + round) & (LATENCY_SAMPLE_INTERVAL - 1)) == 0) {
+					long begin = System.nanoTime();
+					processReading(adapters[i]);
+					record(System.nanoTime() - begin);
+				} else {
+					processReading(adapters[i]);
+				}
+			}
+		}
+		long elapsedNanos = System.nanoTime() - startNanos;
+		printReport((long) rounds * adapters.length, elapsedNanos);
+	}
+
+	private void processReading(TemperatureSensorAdapter adapter) {
+		double celsius = adapter.getCelsius();
+		alertEngine.accept(adapter.getSensorKey(), celsius, adapter.getTimestamp());
+		if (ThresholdProfile.isFault(celsius)) {
+			failedReadings++;
+		}
+	}
+
+	/**
+	 * Lấy mẫu độ trễ (ns của một bản ghi) kiểu reservoir để bộ nhớ cố định với mọi kích thước tải.
+	 */
+	private void record(long latencyNanos) {
+		if (recordedCount < MAX_LATENCY_SAMPLES) {
+			latencySamples[(int) recordedCount] = latencyNanos;
+		} else {
+			long slot = samplingRandom.nextLong(recordedCount + 1);
+			if (slot < MAX_LATENCY_SAMPLES) {
+				latencySamples[(int) slot] = latencyNanos;
+			}
+		}
+		recordedCount++;
+	}
+
+	private void printReport(long readings, long elapsedNanos) {
+		int sampleCount = (int) Math.min(recordedCount, MAX_LATENCY_SAMPLES);
+		long[] sorted = Arrays.copyOf(latencySamples, sampleCount);
+		Arrays.sort(sorted);
+
+		System.out.println("=== Sensor Fleet Load Report ===");
+		System.out.println("Sensors: " + sensors.length + ", Readings: " + readings);
+		System.out.printf("Elapsed: %.1f ms%n", elapsedNanos / 1e6);
+		System.out.printf("Throughput: %,.0f readings/s%n", readings / (elapsedNanos / 1e9));
+		System.out.println("Latency per reading (1 in " + LATENCY_SAMPLE_INTERVAL + " readings timed, "
+				+ recordedCount + " samples):");
+		System.out.println("Latency p50:  " + percentile(sorted, 0.50) + " ns");
+		System.out.println("Latency p90:  " + percentile(sorted, 0.90) + " ns");
+		System.out.println("Latency p99:  " + percentile(sorted, 0.99) + " ns");
+		System.out.println("Latency p999: " + percentile(sorted, 0.999) + " ns");
+		System.out.println("Latency max:  " + (sampleCount == 0 ? 0 : sorted[sampleCount - 1]) + " ns");
+		System.out.println("Alerts: " + alertCount + ", Sensor faults: " + faultAlertCount
+				+ ", Failed readings: " + failedReadings);
+	}
+
+	private static long percentile(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(quantile * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+	}
+
+	public static void main(String[] args) {
+		int sensorCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		double spikeRate = args.length > 2 ? Double.parseDouble(args[2]) : 0.001;
+		double failureRate = args.length > 3 ? Double.parseDouble(args[3]) : 0.0001;
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+		new SensorFleetLoadGenerator(sensorCount, seed, spikeRate, failureRate).run(rounds);
+	}
+}
@@ -0,0 +1,167 @@
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pipeline thu thập liên tục dữ liệu từ một đội cảm biến legacy lớn:
+ * SensorPoller -> ReadingRingBuffer (mỗi consumer một ring) -> RollingTemperatureStats.
+ *
+ * Cảm biến được định danh bằng ID trong SensorRegistry (sensorIndex) và
+ * được định tuyến tới ring theo sensorIndex % consumerCount nên
+ * mỗi cảm biến chỉ có đúng một consumer ghi thống kê. Khi ring đầy,
+ * poller chờ (spin rồi park) thay vì bỏ dữ liệu.
+ */
+public class SensorIngestionEngine {
+
+	private static final int DRAIN_BATCH = 1024;
+	private static final int SPIN_LIMIT = 100;
+	private static final long PARK_NANOS = 50_000L;
+
+	private final LegacyTemperatureSensor[] sensors;
+	private final int[] sensorKeys;
+	private final SensorRegistry registry;
+	private final ReadingRingBuffer[] rings;
+	private final RollingTemperatureStats stats;
+	private final int sensorsPerPoller;
+	private final int pollerThreads;
+
+	private final LongAdder publishedCount = new LongAdder();
+	private final LongAdder consumedCount = new LongAdder();
+	private final LongAdder backpressureCount = new LongAdder();
+
+	private ScheduledExecutorService pollerScheduler;
+	private Thread[] consumerThreads;
+	private volatile boolean running;
+
+	public SensorIngestionEngine(LegacyTemperatureSensor[] sensors, int pollerThreads, int sensorsPerPoller,
+	                             int consumerCount, int ringCapacity, int windowSize) {
+		this(new SensorRegistry(), sensors, pollerThreads, sensorsPerPoller, consumerCount, ringCapacity, windowSize);
+	}
+
+	public SensorIngestionEngine(SensorRegistry registry, LegacyTemperatureSensor[] sensors, int pollerThreads,
+	                             int sensorsPerPoller, int consumerCount, int ringCapacity, int windowSize) {
+		this.registry = registry;
+		this.sensors = sensors;
+		this.sensorKeys = registry.registerAll(sensors);
+		this.pollerThreads = pollerThreads;
+		this.sensorsPerPoller = sensorsPerPoller;
+		this.rings = new ReadingRingBuffer[consumerCount];
+		for (int i = 0; i < consumerCount; i++) {
+			rings[i] = new ReadingRingBuffer(ringCapacity);
+		}
+		this.stats = new RollingTemperatureStats(registry.size(), windowSize);
+	}
+
+	public synchronized void start(long pollIntervalMillis) {
+		if (running) {
+			throw new IllegalStateException("Engine already running");
+		}
+		running = true;
+
+		consumerThreads = new Thread[rings.length];
+		for (int i = 0; i < rings.length; i++) {
+			ReadingRingBuffer ring = rings[i];
+			consumerThreads[i] = new Thread(() -> consume(ring), "ingestion-consumer-" + i);
+			consumerThreads[i].setDaemon(true);
+			consumerThreads[i].start();
+		}
+
+		pollerScheduler = Executors.newScheduledThreadPool(pollerThreads, runnable -> {
+			Thread thread = new Thread(runnable, "ingestion-poller");
+			thread.setDaemon(true);
+			return thread;
+		});
+		for (int from = 0; from < sensors.length; from += sensorsPerPoller) {
+			int to = Math.min(from + sensorsPerPoller, sensors.length);
+			pollerScheduler.scheduleAtFixedRate(new SensorPoller(this, sensors, sensorKeys, from, to),
+					0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+		}
+		System.out.println("[Ingestion] Started: " + sensors.length + " sensors, "
+				+ rings.length + " consumers");
+	}
+
+	/**
+	 * Dừng poller, để consumer xử lý nốt dữ liệu còn trong ring rồi dừng.
+	 * Poller chưa dừng sau 5 giây bị ngắt (interrupt); nếu vẫn chưa dừng thì consumer vẫn được dừng
+	 * nhưng stop() ném IllegalStateException vì bản ghi poller đó publish sau này sẽ không được xử lý.
+	 */
+	public synchronized void stop() throws InterruptedException {
+		if (!running) {
+			return;
+		}
+		pollerScheduler.shutdown();
+		boolean pollersStopped = pollerScheduler.awaitTermination(5, TimeUnit.SECONDS);
+		if (!pollersStopped) {
+			pollerScheduler.shutdownNow();
+			pollersStopped = pollerScheduler.awaitTermination(5, TimeUnit.SECONDS);
+		}
+		running = false;
+		for (Thread consumer : consumerThreads) {
+			consumer.join();
+		}
+		if (!pollersStopped) {
+			throw new IllegalStateException("Sensor pollers did not terminate; readings published after stop are lost");
+		}
+		System.out.println("[Ingestion] Stopped: published=" + getPublishedCount()
+				+ ", consumed=" + getConsumedCount());
+	}
+
+	/**
+	 * Đưa một bản ghi vào ring của cảm biến; chờ khi ring đầy (backpressure).
+	 * @return false nếu engine đã dừng trong lúc chờ
+	 */
+	boolean publish(int sensorIndex, double celsius, long timestamp) {
+		ReadingRingBuffer ring = rings[sensorIndex % rings.length];
+		int spins = 0;
+		while (!ring.offer(sensorIndex, celsius, timestamp)) {
+			if (!running) {
+				return false;
+			}
+			if (spins++ < SPIN_LIMIT) {
+				Thread.onSpinWait();
+			} else {
+				backpressureCount.increment();
+				LockSupport.parkNanos(PARK_NANOS);
+			}
+		}
+		publishedCount.increment();
+		return true;
+	}
+
+	private void consume(ReadingRingBuffer ring) {
+		while (running || ring.size() > 0) {
+			int drained = ring.drain(stats, DRAIN_BATCH);
+			if (drained > 0) {
+				consumedCount.add(drained);
+			} else {
+				LockSupport.parkNanos(PARK_NANOS);
+			}
+		}
+	}
+
+	public SensorRegistry getRegistry() {
+		return registry;
+	}
+
+	public RollingTemperatureStats getStats() {
+		return stats;
+	}
+
+	public long getPublishedCount() {
+		return publishedCount.sum();
+	}
+
+	public long getConsumedCount() {
+		return consumedCount.sum();
+	}
+
+	public long getBackpressureCount() {
+		return backpressureCount.sum();
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+}
@@ -0,0 +1,37 @@
+/**
+ * Poller cho một nhóm cảm biến legacy liên tiếp [fromIndex, toIndex) trong mảng,
+ * công bố bản ghi theo ID trong SensorRegistry.
+ * Là một tác vụ nhẹ được lập lịch định kỳ chứ không chiếm một luồng riêng,
+ * nên có thể tạo hàng chục nghìn poller trên vài luồng của scheduler.
+ */
+public class SensorPoller implements Runnable {
+
+	private final SensorIngestionEngine engine;
+	private final LegacyTemperatureSensor[] sensors;
+	private final int[] sensorKeys;
+	private final int fromIndex;
+	private final int toIndex;
+
+	public SensorPoller(SensorIngestionEngine engine, LegacyTemperatureSensor[] sensors, int[] sensorKeys,
+	                    int fromIndex, int toIndex) {
+		this.engine = engine;
+		this.sensors = sensors;
+		this.sensorKeys = sensorKeys;
+		this.fromIndex = fromIndex;
+		this.toIndex = toIndex;
+	}
+
+	@Override
+	public void run() {
+		long timestamp = System.currentTimeMillis();
+		for (int i = fromIndex; i < toIndex; i++) {
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			double celsius = TemperatureSensorAdapter.toCelsius(sensors[i].getFahrenheit());
+			if (!engine.publish(sensorKeys[i], celsius, timestamp)) {
+				return;
+			}
+		}
+	}
+}
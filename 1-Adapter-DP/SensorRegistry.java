@@ -0,0 +1,74 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sổ đăng ký cảm biến: gán cho mỗi sensorId một số nguyên liên tục (0, 1, 2, ...)
+ * và lưu metadata (ID, chuỗi thông tin) đúng một lần.
+ *
+ * Các thành phần khác (adapter, batch, ring buffer, thống kê, kho dữ liệu) chỉ mang
+ * số nguyên này - chính là sensorIndex dùng để đánh chỉ số mảng,
+ * nên tra cứu là truy cập mảng thay vì băm chuỗi.
+ */
+public class SensorRegistry {
+
+	private final Map<String, Integer> idsByName = new HashMap<>();
+	private volatile String[] sensorIds = new String[16];
+	private volatile String[] sensorInfos = new String[16];
+	private int size;
+
+	/**
+	 * Trả về ID đã có hoặc gán ID mới cho sensorId.
+	 */
+	public synchronized int register(String sensorId) {
+		Integer existing = idsByName.get(sensorId);
+		if (existing != null) {
+			return existing;
+		}
+		int id = size;
+		String[] ids = sensorIds;
+		String[] infos = sensorInfos;
+		if (id == ids.length) {
+			ids = Arrays.copyOf(ids, id * 2);
+			infos = Arrays.copyOf(infos, id * 2);
+		}
+		ids[id] = sensorId;
+		infos[id] = "Sensor[ID=" + sensorId + ", Type=Legacy, Unit=Converted]";
+		sensorIds = ids;
+		sensorInfos = infos;
+		idsByName.put(sensorId, id);
+		size++;
+		return id;
+	}
+
+	/**
+	 * Đăng ký cả đội cảm biến, trả về ID theo đúng thứ tự mảng.
+	 */
+	public int[] registerAll(LegacyTemperatureSensor[] sensors) {
+		int[] ids = new int[sensors.length];
+		for (int i = 0; i < sensors.length; i++) {
+			ids[i] = register(sensors[i].getSensorId());
+		}
+		return ids;
+	}
+
+	/**
+	 * Tra ngược ID từ tên; trả về -1 nếu chưa đăng ký.
+	 */
+	public synchronized int lookup(String sensorId) {
+		Integer id = idsByName.get(sensorId);
+		return id == null ? -1 : id;
+	}
+
+	public String getSensorId(int id) {
+		return sensorIds[id];
+	}
+
+	public String getSensorInfo(int id) {
+		return sensorInfos[id];
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+}
@@ -0,0 +1,80 @@
+import java.util.SplittableRandom;
+
+/**
+ * Cảm biến legacy giả lập cho kiểm thử tải: nhiệt độ dao động quanh giá trị gốc
+ * (drift), thỉnh thoảng có đỉnh nhiễu (spike) và có thể hỏng (trả về NaN) trong một
+ * số chu kỳ. Dùng bộ sinh số ngẫu nhiên có seed nên kết quả lặp lại được.
+ */
+public class SimulatedSensor implements LegacyTemperatureSensor {
+
+	private static final double MAX_DRIFT_STEP = 0.05;
+	private static final double SPIKE_AMPLITUDE = 40.0;
+	private static final int FAILURE_TICKS = 10;
+
+	private final SplittableRandom random;
+	private final double spikeRate;
+	private final double failureRate;
+
+	private String sensorId;
+	private double baseFahrenheit;
+	private double drift;
+	private double fahrenheit;
+	private int failedTicksRemaining;
+
+	public SimulatedSensor(String sensorId, double baseFahrenheit, long seed, double spikeRate, double failureRate) {
+		this.sensorId = sensorId;
+		this.baseFahrenheit = baseFahrenheit;
+		this.fahrenheit = baseFahrenheit;
+		this.random = new SplittableRandom(seed);
+		this.spikeRate = spikeRate;
+		this.failureRate = failureRate;
+	}
+
+	/**
+	 * Tiến thêm một chu kỳ đo.
+	 */
+	public void tick() {
+		if (failedTicksRemaining > 0) {
+			failedTicksRemaining--;
+			fahrenheit = Double.NaN;
+			return;
+		}
+		if (random.nextDouble() < failureRate) {
+			failedTicksRemaining = FAILURE_TICKS;
+			fahrenheit = Double.NaN;
+			return;
+		}
+		drift += (random.nextDouble() * 2 - 1) * MAX_DRIFT_STEP;
+		drift *= 0.99; // kéo dần về giá trị gốc
+		fahrenheit = baseFahrenheit + drift;
+		if (random.nextDouble() < spikeRate) {
+			fahrenheit += (random.nextDouble() * 2 - 1) * SPIKE_AMPLITUDE;
+		}
+	}
+
+	public boolean isFailed() {
+		return Double.isNaN(fahrenheit);
+	}
+
+	@Override
+	public double getFahrenheit() {
+		return fahrenheit;
+	}
+
+	@Override
+	public String getSensorId() {
+		return sensorId;
+	}
+
+	@Override
+	public void setFahrenheit(double fahrenheit) {
+		this.baseFahrenheit = fahrenheit;
+		this.fahrenheit = fahrenheit;
+		this.drift = 0;
+	}
+
+	@Override
+	public void setSensorId(String sensorId) {
+		this.sensorId = sensorId;
+	}
+}
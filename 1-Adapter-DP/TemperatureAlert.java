@@ -0,0 +1,48 @@
+/**
+ * Sự kiện cảnh báo: chỉ được phát ra khi trạng thái của cảm biến thay đổi.
+ */
+public class TemperatureAlert {
+
+	private final int sensorIndex;
+	private final String previousStatus;
+	private final String status;
+	private final double celsius;
+	private final long timestamp;
+
+	public TemperatureAlert(int sensorIndex, String previousStatus, String status, double celsius, long timestamp) {
+		this.sensorIndex = sensorIndex;
+		this.previousStatus = previousStatus;
+		this.status = status;
+		this.celsius = celsius;
+		this.timestamp = timestamp;
+	}
+
+	public int getSensorIndex() {
+		return sensorIndex;
+	}
+
+	/**
+	 * Trạng thái trước đó, null nếu đây là lần đầu cảm biến được đánh giá.
+	 */
+	public String getPreviousStatus() {
+		return previousStatus;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public double getCelsius() {
+		return celsius;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	@Override
+	public String toString() {
+		return "Alert[sensor=" + sensorIndex + ", " + previousStatus + " -> " + status
+				+ String.format(", %.2f°C]", celsius);
+	}
+}
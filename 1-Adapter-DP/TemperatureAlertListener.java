@@ -0,0 +1,4 @@
+public interface TemperatureAlertListener {
+
+	public void onAlert(TemperatureAlert alert);
+}
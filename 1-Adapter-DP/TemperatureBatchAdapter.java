@@ -0,0 +1,164 @@
+/**
+ * Batch Adapter: chuyển đổi cả một cột giá trị Fahrenheit sang cột Celsius
+ * và cột mã trạng thái trong một vòng lặp duy nhất, không cấp phát đối tượng.
+ * Mã trạng thái là mức của ThresholdProfile (mặc định ThresholdProfile.DEFAULT).
+ *
+ * Mỗi phần tử vẫn được truy cập qua interface TemperatureReading
+ * thông qua view BatchTemperatureReading.
+ */
+public class TemperatureBatchAdapter {
+
+	private final double[] celsius;
+	private final byte[] statusCodes;
+	private final int[] sensorKeys;
+	private final SensorRegistry registry;
+	private final ThresholdProfile profile;
+	private final double[] breakpoints;
+	// Thông tin cảm biến gán qua setSensorInfo(), chỉ cấp phát khi cần; null = lấy từ registry
+	private String[] sensorInfoOverrides;
+	private int size;
+	private long timestamp;
+
+	public TemperatureBatchAdapter(int capacity) {
+		this(capacity, new SensorRegistry());
+	}
+
+	public TemperatureBatchAdapter(int capacity, SensorRegistry registry) {
+		this(capacity, registry, ThresholdProfile.DEFAULT);
+	}
+
+	public TemperatureBatchAdapter(int capacity, SensorRegistry registry, ThresholdProfile profile) {
+		if (profile.getLevelCount() > Byte.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many status levels: " + profile.getLevelCount());
+		}
+		this.celsius = new double[capacity];
+		this.statusCodes = new byte[capacity];
+		this.sensorKeys = new int[capacity];
+		this.registry = registry;
+		this.profile = profile;
+		this.breakpoints = profile.getBreakpoints();
+	}
+
+	/**
+	 * Chuyển đổi count giá trị đầu tiên của mảng fahrenheit.
+	 * Toàn bộ batch dùng chung một timestamp.
+	 */
+	public void convert(double[] fahrenheit, int count) {
+		if (count > celsius.length) {
+			throw new IllegalArgumentException("Batch capacity exceeded: " + count + " > " + celsius.length);
+		}
+		convert(fahrenheit, celsius, statusCodes, count, breakpoints);
+		this.size = count;
+		this.sensorInfoOverrides = null;
+		this.timestamp = System.currentTimeMillis();
+	}
+
+	/**
+	 * Chuyển đổi batch kèm ID cảm biến (lấy từ SensorRegistry) của từng phần tử.
+	 */
+	public void convert(int[] sensorKeys, double[] fahrenheit, int count) {
+		convert(fahrenheit, count);
+		System.arraycopy(sensorKeys, 0, this.sensorKeys, 0, count);
+	}
+
+	/**
+	 * Đọc dữ liệu từ các cảm biến legacy rồi chuyển đổi theo batch.
+	 */
+	public void convert(LegacyTemperatureSensor[] sensors, double[] scratch) {
+		int count = sensors.length;
+		if (count > celsius.length || count > scratch.length) {
+			throw new IllegalArgumentException("Batch capacity exceeded: " + count + " > "
+					+ Math.min(celsius.length, scratch.length));
+		}
+		for (int i = 0; i < count; i++) {
+			scratch[i] = sensors[i].getFahrenheit();
+			sensorKeys[i] = registry.register(sensors[i].getSensorId());
+		}
+		convert(scratch, count);
+	}
+
+	/**
+	 * Vòng lặp chính: không cấp phát để JIT có thể vector hóa.
+	 * Mã trạng thái = số điểm ngưỡng không lớn hơn nhiệt độ, như ThresholdProfile.levelOf();
+	 * so sánh viết dạng !(c &lt; b) để NaN rơi vào mức cao nhất (CRITICAL-HOT như determineStatus() ban đầu).
+	 */
+	public static void convert(double[] fahrenheit, double[] celsius, byte[] statusCodes, int count,
+	                           double[] breakpoints) {
+		for (int i = 0; i < count; i++) {
+			double c = TemperatureSensorAdapter.toCelsius(fahrenheit[i]);
+			celsius[i] = c;
+			int level = 0;
+			for (double breakpoint : breakpoints) {
+				level += c < breakpoint ? 0 : 1;
+			}
+			statusCodes[i] = (byte) level;
+		}
+	}
+
+	public String statusName(byte code) {
+		return profile.getStatusName(code);
+	}
+
+	public byte statusCode(String name) {
+		for (byte i = 0; i < profile.getLevelCount(); i++) {
+			if (profile.getStatusName(i).equals(name)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unknown status: " + name);
+	}
+
+	public String getSensorInfo(int index) {
+		String[] overrides = sensorInfoOverrides;
+		if (overrides != null && overrides[index] != null) {
+			return overrides[index];
+		}
+		return registry.getSensorInfo(sensorKeys[index]);
+	}
+
+	public void setSensorInfo(int index, String sensorInfo) {
+		if (sensorInfoOverrides == null) {
+			sensorInfoOverrides = new String[celsius.length];
+		}
+		sensorInfoOverrides[index] = sensorInfo;
+	}
+
+	public TemperatureReading getReading(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return new BatchTemperatureReading(this, index);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public void setTimestamp(long timestamp) {
+		this.timestamp = timestamp;
+	}
+
+	public double[] getCelsiusColumn() {
+		return celsius;
+	}
+
+	public byte[] getStatusColumn() {
+		return statusCodes;
+	}
+
+	public int[] getSensorKeyColumn() {
+		return sensorKeys;
+	}
+
+	public SensorRegistry getRegistry() {
+		return registry;
+	}
+
+	public ThresholdProfile getProfile() {
+		return profile;
+	}
+}
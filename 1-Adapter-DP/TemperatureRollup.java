@@ -0,0 +1,52 @@
+/**
+ * Các tầng tổng hợp 1 giây -> 1 phút -> 1 giờ (min, max, sum, count) cho mỗi cảm biến,
+ * được cập nhật tăng dần O(1) cho mỗi bản ghi. Dashboard truy vấn trực tiếp
+ * tầng phù hợp thay vì quét lại dữ liệu thô.
+ *
+ * Có thể gắn vào pipeline như một ReadingConsumer.
+ */
+public class TemperatureRollup implements ReadingConsumer {
+
+	public static final long SECOND = 1_000L;
+	public static final long MINUTE = 60 * SECOND;
+	public static final long HOUR = 60 * MINUTE;
+
+	private final RollupTier hourTier;
+	private final RollupTier minuteTier;
+	private final RollupTier secondTier;
+
+	/**
+	 * @param secondRetention số cửa sổ 1 giây giữ lại cho mỗi cảm biến
+	 * @param minuteRetention số cửa sổ 1 phút giữ lại cho mỗi cảm biến
+	 * @param hourRetention   số cửa sổ 1 giờ giữ lại cho mỗi cảm biến
+	 */
+	public TemperatureRollup(int sensorCount, int secondRetention, int minuteRetention, int hourRetention) {
+		this.hourTier = new RollupTier(sensorCount, HOUR, hourRetention, null);
+		this.minuteTier = new RollupTier(sensorCount, MINUTE, minuteRetention, hourTier);
+		this.secondTier = new RollupTier(sensorCount, SECOND, secondRetention, minuteTier);
+	}
+
+	@Override
+	public void accept(int sensorIndex, double celsius, long timestamp) {
+		secondTier.add(sensorIndex, timestamp, celsius, celsius, celsius, 1);
+	}
+
+	/**
+	 * Đóng các cửa sổ đã kết thúc tại thời điểm now ở mọi tầng.
+	 */
+	public void closeUntil(long now) {
+		secondTier.closeUntil(now);
+	}
+
+	public RollupTier getSecondTier() {
+		return secondTier;
+	}
+
+	public RollupTier getMinuteTier() {
+		return minuteTier;
+	}
+
+	public RollupTier getHourTier() {
+		return hourTier;
+	}
+}
@@ -7,31 +7,69 @@ public class TemperatureSensorAdapter implements TemperatureReading {
 
 	private final LegacyTemperatureSensor legacySensor;
 
+	// Chế độ live: chỉ chuyển đổi khi được đọc và khi giá trị Fahrenheit thay đổi
+	private final boolean live;
+	private boolean converted;
+	private long cachedFahrenheitBits;
+	private String cachedSensorId;
+
+	// Khi có registry: chuỗi thông tin được dùng chung, adapter chỉ giữ ID số nguyên
+	private final SensorRegistry registry;
+	private int sensorKey = -1;
+
 	public TemperatureSensorAdapter(LegacyTemperatureSensor legacySensor) {
+		this(legacySensor, null, false);
+	}
+
+	public TemperatureSensorAdapter(LegacyTemperatureSensor legacySensor, boolean live) {
+		this(legacySensor, null, live);
+	}
+
+	public TemperatureSensorAdapter(LegacyTemperatureSensor legacySensor, SensorRegistry registry, boolean live) {
 		this.legacySensor = legacySensor;
-		convertData();
+		this.registry = registry;
+		this.live = live;
+		if (!live) {
+			convertData();
+		}
 	}
 
 	@Override
 	public double getCelsius() {
+		refresh();
 		return celsius;
 	}
 
 	@Override
 	public String getSensorInfo() {
+		refresh();
 		return sensorInfo;
 	}
 
 	@Override
 	public long getTimestamp() {
+		refresh();
 		return timestamp;
 	}
 
 	@Override
 	public String getStatus() {
+		refresh();
 		return status;
 	}
 
+	public boolean isLive() {
+		return live;
+	}
+
+	/**
+	 * ID của cảm biến trong SensorRegistry, -1 nếu adapter không dùng registry.
+	 */
+	public int getSensorKey() {
+		refresh();
+		return sensorKey;
+	}
+
 	@Override
 	public void setCelsius(double celsius) {
 		this.celsius = celsius;
@@ -52,19 +90,51 @@ public class TemperatureSensorAdapter implements TemperatureReading {
 		this.status = status;
 	}
 
+	/**
+	 * Ở chế độ live: chuyển đổi lần đầu khi được đọc, sau đó chỉ chuyển đổi lại
+	 * khi giá trị Fahrenheit (so sánh theo bit) hoặc ID cảm biến thay đổi.
+	 */
+	private void refresh() {
+		if (!live) {
+			return;
+		}
+		long fahrenheitBits = Double.doubleToRawLongBits(this.legacySensor.getFahrenheit());
+		if (!converted || fahrenheitBits != cachedFahrenheitBits
+				|| this.legacySensor.getSensorId() != cachedSensorId) {
+			cachedFahrenheitBits = fahrenheitBits;
+			converted = true;
+			convertData();
+		}
+	}
+
+	/**
+	 * Chuyển đổi Fahrenheit sang Celsius: (F - 32) × 5/9.
+	 * Công thức duy nhất của hệ thống - batch adapter, poller và importer đều gọi hàm này.
+	 */
+	public static double toCelsius(double fahrenheit) {
+		return (fahrenheit - 32) * 5.0 / 9.0;
+	}
+
 	/**
 	 * Chuyển đổi dữ liệu từ LegacyTemperatureSensor sang TemperatureReading
 	 */
 	private void convertData() {
-		// Chuyển đổi Fahrenheit sang Celsius: (F - 32) × 5/9
-		double fahrenheit = this.legacySensor.getFahrenheit();
-		double celsiusValue = (fahrenheit - 32) * 5.0 / 9.0;
+		double celsiusValue = toCelsius(this.legacySensor.getFahrenheit());
 		setCelsius(celsiusValue);
 
-		// Format thông tin cảm biến chi tiết
-		String detailedInfo = "Sensor[ID=" + this.legacySensor.getSensorId() +
-		                      ", Type=Legacy, Unit=Converted]";
-		setSensorInfo(detailedInfo);
+		// Format thông tin cảm biến chi tiết (chỉ tạo lại khi ID thay đổi)
+		String sensorId = this.legacySensor.getSensorId();
+		if (sensorInfo == null || sensorId != cachedSensorId) {
+			cachedSensorId = sensorId;
+			if (registry != null) {
+				sensorKey = registry.register(sensorId);
+				setSensorInfo(registry.getSensorInfo(sensorKey));
+			} else {
+				String detailedInfo = "Sensor[ID=" + sensorId +
+				                      ", Type=Legacy, Unit=Converted]";
+				setSensorInfo(detailedInfo);
+			}
+		}
 
 		// Thêm timestamp hiện tại
 		setTimestamp(System.currentTimeMillis());
@@ -74,21 +144,13 @@ public class TemperatureSensorAdapter implements TemperatureReading {
 	}
 
 	/**
-	 * Xác định trạng thái dựa trên nhiệt độ
+	 * Xác định trạng thái dựa trên nhiệt độ (theo ThresholdProfile.DEFAULT)
 	 * - Below 0°C: CRITICAL (quá lạnh)
 	 * - 0-5°C: WARNING (gần ngưỡng)
 	 * - 5-25°C: NORMAL (bình thường)
 	 * - Above 25°C: CRITICAL (quá nóng)
 	 */
 	private String determineStatus(double celsius) {
-		if (celsius < 0) {
-			return "CRITICAL-COLD";
-		} else if (celsius >= 0 && celsius < 5) {
-			return "WARNING-LOW";
-		} else if (celsius >= 5 && celsius <= 25) {
-			return "NORMAL";
-		} else {
-			return "CRITICAL-HOT";
-		}
+		return ThresholdProfile.DEFAULT.statusOf(celsius);
 	}
 }
@@ -0,0 +1,252 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kho lưu trữ chuỗi thời gian (sensor, timestamp, celsius) chỉ ghi nối (append-only).
+ * Cảm biến được định danh bằng ID số nguyên của SensorRegistry.
+ *
+ * - Dữ liệu mỗi cảm biến được gom thành block và nén Gorilla (GorillaBlockEncoder)
+ * - Block đầy được ghi vào file dữ liệu qua các segment memory-mapped cố định
+ * - Chỉ mục block theo cảm biến (timestamp đầu/cuối, offset) được ghi vào file .idx,
+ *   truy vấn theo khoảng thời gian chỉ đọc những block giao với khoảng đó
+ *
+ * Block đang mở nằm trong bộ nhớ cho tới khi đầy hoặc flush()/close().
+ * Mục chỉ mục của block đã ghi chỉ được ghi ra file .idx trong flush(), sau khi dữ liệu đã force() xuống đĩa,
+ * nên sau sự cố chỉ mục không bao giờ trỏ tới dữ liệu chưa được lưu.
+ * File dữ liệu luôn dài bằng bội số SEGMENT_SIZE (file thưa) vì không thể cắt file khi còn đang map;
+ * phần đã dùng được xác định từ chỉ mục.
+ * Timestamp của mỗi cảm biến phải tăng dần.
+ */
+public class TemperatureTimeSeriesStore implements AutoCloseable {
+
+	private static final long SEGMENT_SIZE = 64L << 20;
+	private static final int MAX_POINTS_PER_BLOCK = 1_000_000;
+	private static final int INDEX_ENTRY_SIZE = 36;
+
+	private final FileChannel dataChannel;
+	private final FileChannel indexChannel;
+	private final List<MappedByteBuffer> segments = new ArrayList<>();
+	// Mục chỉ mục của các block đã ghi nhưng chưa flush()
+	private ByteBuffer pendingIndex = ByteBuffer.allocate(INDEX_ENTRY_SIZE * 64);
+	private final int pointsPerBlock;
+
+	private SensorSeries[] series = new SensorSeries[16];
+	private long writePosition;
+
+	public TemperatureTimeSeriesStore(Path directory, int pointsPerBlock) throws IOException {
+		if (pointsPerBlock < 1 || pointsPerBlock > MAX_POINTS_PER_BLOCK) {
+			throw new IllegalArgumentException("pointsPerBlock must be in [1, " + MAX_POINTS_PER_BLOCK + "]");
+		}
+		this.pointsPerBlock = pointsPerBlock;
+		Files.createDirectories(directory);
+		this.dataChannel = FileChannel.open(directory.resolve("readings.dat"),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.indexChannel = FileChannel.open(directory.resolve("readings.idx"),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		loadIndex();
+	}
+
+	/**
+	 * Đọc lại chỉ mục từ file .idx khi mở kho đã tồn tại.
+	 */
+	private void loadIndex() throws IOException {
+		long entries = indexChannel.size() / INDEX_ENTRY_SIZE;
+		ByteBuffer buffer = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+		for (long i = 0; i < entries; i++) {
+			buffer.clear();
+			indexChannel.read(buffer, i * INDEX_ENTRY_SIZE);
+			buffer.flip();
+			int sensorIndex = buffer.getInt();
+			long firstTimestamp = buffer.getLong();
+			long lastTimestamp = buffer.getLong();
+			long offset = buffer.getLong();
+			int length = buffer.getInt();
+			int count = buffer.getInt();
+			seriesFor(sensorIndex).addBlock(firstTimestamp, lastTimestamp, offset, count);
+			writePosition = Math.max(writePosition, offset + length);
+		}
+		indexChannel.position(entries * INDEX_ENTRY_SIZE);
+	}
+
+	public synchronized void append(int sensorIndex, long timestamp, double celsius) throws IOException {
+		SensorSeries sensor = seriesFor(sensorIndex);
+		if (timestamp < sensor.lastTimestamp) {
+			throw new IllegalArgumentException("Out-of-order timestamp for sensor " + sensorIndex
+					+ ": " + timestamp + " < " + sensor.lastTimestamp);
+		}
+		sensor.openBlock.append(timestamp, celsius);
+		sensor.lastTimestamp = timestamp;
+		if (sensor.openBlock.getCount() >= pointsPerBlock) {
+			writeBlock(sensorIndex, sensor);
+		}
+	}
+
+	/**
+	 * Truy vấn các điểm của một cảm biến trong [fromTimestamp, toTimestamp].
+	 * Dùng tìm kiếm nhị phân trên chỉ mục để bỏ qua các block nằm ngoài khoảng.
+	 */
+	public synchronized void query(int sensorIndex, long fromTimestamp, long toTimestamp,
+	                               ReadingConsumer consumer) throws IOException {
+		if (sensorIndex >= series.length || series[sensorIndex] == null) {
+			return;
+		}
+		SensorSeries sensor = series[sensorIndex];
+		for (int b = sensor.firstBlockEndingAtOrAfter(fromTimestamp); b < sensor.blockCount; b++) {
+			if (sensor.firstTimestamps[b] > toTimestamp) {
+				return;
+			}
+			long offset = sensor.offsets[b];
+			MappedByteBuffer segment = segment((int) (offset / SEGMENT_SIZE));
+			new GorillaBlockDecoder(segment, (int) (offset % SEGMENT_SIZE), sensor.counts[b])
+					.decode(sensorIndex, fromTimestamp, toTimestamp, consumer);
+		}
+		GorillaBlockEncoder open = sensor.openBlock;
+		if (open.getCount() > 0 && open.getFirstTimestamp() <= toTimestamp) {
+			new GorillaBlockDecoder(open.getBuffer(), 0, open.getCount())
+					.decode(sensorIndex, fromTimestamp, toTimestamp, consumer);
+		}
+	}
+
+	/**
+	 * Ghi tất cả block đang mở xuống đĩa.
+	 */
+	public synchronized void flush() throws IOException {
+		for (int i = 0; i < series.length; i++) {
+			if (series[i] != null && series[i].openBlock.getCount() > 0) {
+				writeBlock(i, series[i]);
+			}
+		}
+		for (MappedByteBuffer segment : segments) {
+			if (segment != null) {
+				segment.force();
+			}
+		}
+		pendingIndex.flip();
+		while (pendingIndex.hasRemaining()) {
+			indexChannel.write(pendingIndex);
+		}
+		pendingIndex.clear();
+		indexChannel.force(false);
+	}
+
+	private void writeBlock(int sensorIndex, SensorSeries sensor) throws IOException {
+		GorillaBlockEncoder block = sensor.openBlock;
+		int length = block.getByteLength();
+
+		// Block không được nằm vắt qua hai segment
+		long segmentOffset = writePosition % SEGMENT_SIZE;
+		if (segmentOffset + length > SEGMENT_SIZE) {
+			writePosition += SEGMENT_SIZE - segmentOffset;
+			segmentOffset = 0;
+		}
+		MappedByteBuffer segment = segment((int) (writePosition / SEGMENT_SIZE));
+		segment.put((int) segmentOffset, block.getBuffer().array(), 0, length);
+
+		long offset = writePosition;
+		writePosition += length;
+		sensor.addBlock(block.getFirstTimestamp(), block.getLastTimestamp(), offset, block.getCount());
+
+		if (pendingIndex.remaining() < INDEX_ENTRY_SIZE) {
+			ByteBuffer grown = ByteBuffer.allocate(pendingIndex.capacity() * 2);
+			pendingIndex.flip();
+			pendingIndex = grown.put(pendingIndex);
+		}
+		pendingIndex.putInt(sensorIndex)
+				.putLong(block.getFirstTimestamp())
+				.putLong(block.getLastTimestamp())
+				.putLong(offset)
+				.putInt(length)
+				.putInt(block.getCount());
+		block.reset();
+	}
+
+	private MappedByteBuffer segment(int segmentIndex) throws IOException {
+		while (segments.size() <= segmentIndex) {
+			segments.add(null);
+		}
+		MappedByteBuffer segment = segments.get(segmentIndex);
+		if (segment == null) {
+			segment = dataChannel.map(FileChannel.MapMode.READ_WRITE, segmentIndex * SEGMENT_SIZE, SEGMENT_SIZE);
+			segments.set(segmentIndex, segment);
+		}
+		return segment;
+	}
+
+	private SensorSeries seriesFor(int sensorIndex) {
+		if (sensorIndex >= series.length) {
+			series = Arrays.copyOf(series, Math.max(sensorIndex + 1, series.length * 2));
+		}
+		if (series[sensorIndex] == null) {
+			series[sensorIndex] = new SensorSeries();
+		}
+		return series[sensorIndex];
+	}
+
+	/**
+	 * Kích thước dữ liệu đã ghi xuống file (byte), không tính block đang mở.
+	 */
+	public synchronized long getDataSize() {
+		return writePosition;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		flush();
+		segments.clear();
+		dataChannel.close();
+		indexChannel.close();
+	}
+
+	/**
+	 * Chỉ mục block và block đang mở của một cảm biến, lưu bằng các mảng song song.
+	 */
+	private static class SensorSeries {
+
+		private final GorillaBlockEncoder openBlock = new GorillaBlockEncoder();
+		private long lastTimestamp = Long.MIN_VALUE;
+
+		private int blockCount;
+		private long[] firstTimestamps = new long[4];
+		private long[] lastTimestamps = new long[4];
+		private long[] offsets = new long[4];
+		private int[] counts = new int[4];
+
+		void addBlock(long firstTimestamp, long blockLastTimestamp, long offset, int count) {
+			if (blockCount == offsets.length) {
+				int capacity = blockCount * 2;
+				firstTimestamps = Arrays.copyOf(firstTimestamps, capacity);
+				lastTimestamps = Arrays.copyOf(lastTimestamps, capacity);
+				offsets = Arrays.copyOf(offsets, capacity);
+				counts = Arrays.copyOf(counts, capacity);
+			}
+			firstTimestamps[blockCount] = firstTimestamp;
+			lastTimestamps[blockCount] = blockLastTimestamp;
+			offsets[blockCount] = offset;
+			counts[blockCount] = count;
+			blockCount++;
+			lastTimestamp = Math.max(lastTimestamp, blockLastTimestamp);
+		}
+
+		int firstBlockEndingAtOrAfter(long timestamp) {
+			int low = 0;
+			int high = blockCount;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (lastTimestamps[mid] < timestamp) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+}
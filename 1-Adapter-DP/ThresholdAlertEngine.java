@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+/**
+ * Engine cảnh báo theo cạnh (edge-triggered): mỗi cảm biến thuộc một zone,
+ * mỗi zone có một ThresholdProfile. Chỉ phát TemperatureAlert khi mức trạng thái
+ * của cảm biến thay đổi, thay vì tạo chuỗi trạng thái cho mọi bản ghi.
+ *
+ * Bản ghi NaN là lỗi cảm biến: phát một cảnh báo ThresholdProfile.FAULT_STATUS, và khi cảm biến
+ * đọc lại được thì mức được tính lại không dùng hysteresis.
+ *
+ * Profile của zone có thể nạp lại lúc chạy (copy-on-write). Trạng thái mỗi cảm biến
+ * chỉ nên được cập nhật bởi một luồng (giống RollingTemperatureStats).
+ */
+public class ThresholdAlertEngine implements ReadingConsumer {
+
+	private static final byte UNKNOWN_LEVEL = -1;
+	private static final byte FAULT_LEVEL = -2;
+
+	private final int[] sensorZones;
+	private final byte[] sensorLevels;
+	private final ThresholdProfile[] sensorProfiles;
+	private final TemperatureAlertListener listener;
+	private volatile ThresholdProfile[] zoneProfiles;
+
+	public ThresholdAlertEngine(int sensorCount, int zoneCount, TemperatureAlertListener listener) {
+		this.sensorZones = new int[sensorCount];
+		this.sensorLevels = new byte[sensorCount];
+		this.sensorProfiles = new ThresholdProfile[sensorCount];
+		this.listener = listener;
+		this.zoneProfiles = new ThresholdProfile[zoneCount];
+		Arrays.fill(sensorLevels, UNKNOWN_LEVEL);
+		Arrays.fill(zoneProfiles, ThresholdProfile.DEFAULT);
+	}
+
+	public void assignZone(int sensorIndex, int zone) {
+		if (zone < 0 || zone >= zoneProfiles.length) {
+			throw new IllegalArgumentException("Unknown zone: " + zone);
+		}
+		sensorZones[sensorIndex] = zone;
+	}
+
+	/**
+	 * Nạp lại ngưỡng của một zone; có hiệu lực từ bản ghi tiếp theo.
+	 */
+	public synchronized void reloadZone(int zone, ThresholdProfile profile) {
+		if (profile.getLevelCount() > Byte.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many levels: " + profile.getLevelCount());
+		}
+		ThresholdProfile[] updated = zoneProfiles.clone();
+		updated[zone] = profile;
+		zoneProfiles = updated;
+		System.out.println("[Alert] Zone " + zone + " reloaded: " + profile);
+	}
+
+	@Override
+	public void accept(int sensorIndex, double celsius, long timestamp) {
+		ThresholdProfile profile = zoneProfiles[sensorZones[sensorIndex]];
+		int current = sensorLevels[sensorIndex];
+		ThresholdProfile previousProfile = sensorProfiles[sensorIndex];
+		if (ThresholdProfile.isFault(celsius)) {
+			if (current != FAULT_LEVEL) {
+				sensorLevels[sensorIndex] = FAULT_LEVEL;
+				sensorProfiles[sensorIndex] = profile;
+				listener.onAlert(new TemperatureAlert(sensorIndex, statusName(previousProfile, current),
+						ThresholdProfile.FAULT_STATUS, celsius, timestamp));
+			}
+			return;
+		}
+		if (previousProfile != profile || current == FAULT_LEVEL) {
+			// Profile vừa đổi hoặc cảm biến vừa hết lỗi: tính lại mức không dùng hysteresis
+			int level = profile.levelOf(celsius);
+			String previousStatus = statusName(previousProfile, current);
+			sensorProfiles[sensorIndex] = profile;
+			sensorLevels[sensorIndex] = (byte) level;
+			String status = profile.getStatusName(level);
+			if (!status.equals(previousStatus)) {
+				listener.onAlert(new TemperatureAlert(sensorIndex, previousStatus, status, celsius, timestamp));
+			}
+			return;
+		}
+		int level = profile.nextLevel(current, celsius);
+		if (level != current) {
+			sensorLevels[sensorIndex] = (byte) level;
+			listener.onAlert(new TemperatureAlert(sensorIndex, profile.getStatusName(current),
+					profile.getStatusName(level), celsius, timestamp));
+		}
+	}
+
+	public String getStatus(int sensorIndex) {
+		return statusName(sensorProfiles[sensorIndex], sensorLevels[sensorIndex]);
+	}
+
+	private static String statusName(ThresholdProfile profile, int level) {
+		if (level == UNKNOWN_LEVEL) {
+			return null;
+		}
+		return level == FAULT_LEVEL ? ThresholdProfile.FAULT_STATUS : profile.getStatusName(level);
+	}
+
+	public ThresholdProfile getZoneProfile(int zone) {
+		return zoneProfiles[zone];
+	}
+}
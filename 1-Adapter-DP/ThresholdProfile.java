@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+/**
+ * Bộ ngưỡng nhiệt độ của một khu vực (zone): các điểm ngưỡng tăng dần chia trục nhiệt độ
+ * thành breakpoints.length + 1 mức, mỗi mức có một tên trạng thái.
+ * Mức của một giá trị được tìm bằng tìm kiếm nhị phân.
+ *
+ * Đối tượng bất biến - để đổi ngưỡng lúc chạy, tạo profile mới và nạp lại vào engine.
+ */
+public class ThresholdProfile {
+
+	/**
+	 * Tương đương determineStatus() ban đầu: &lt;0 | [0, 5) | [5, 25] | &gt;25
+	 */
+	public static final ThresholdProfile DEFAULT = new ThresholdProfile(
+			new double[] { 0.0, 5.0, Math.nextUp(25.0) },
+			new String[] { "CRITICAL-COLD", "WARNING-LOW", "NORMAL", "CRITICAL-HOT" },
+			0.0);
+
+	/**
+	 * Trạng thái của cảm biến hỏng (bản ghi NaN) trong ThresholdAlertEngine
+	 */
+	public static final String FAULT_STATUS = "SENSOR-FAULT";
+
+	private final double[] breakpoints;
+	private final String[] statusNames;
+	private final double hysteresis;
+
+	public ThresholdProfile(double[] breakpoints, String[] statusNames, double hysteresis) {
+		if (statusNames.length != breakpoints.length + 1) {
+			throw new IllegalArgumentException("Expected " + (breakpoints.length + 1) + " status names, got "
+					+ statusNames.length);
+		}
+		for (int i = 1; i < breakpoints.length; i++) {
+			if (!(breakpoints[i] > breakpoints[i - 1])) {
+				throw new IllegalArgumentException("Breakpoints must be strictly increasing");
+			}
+		}
+		if (hysteresis < 0) {
+			throw new IllegalArgumentException("Hysteresis must not be negative: " + hysteresis);
+		}
+		this.breakpoints = breakpoints.clone();
+		this.statusNames = statusNames.clone();
+		this.hysteresis = hysteresis;
+	}
+
+	/**
+	 * Mức của giá trị = số điểm ngưỡng nhỏ hơn hoặc bằng giá trị đó.
+	 * NaN được xếp vào mức cao nhất (như determineStatus() ban đầu); nơi cần phân biệt
+	 * cảm biến hỏng phải kiểm tra isFault() trước.
+	 */
+	public int levelOf(double celsius) {
+		if (Double.isNaN(celsius)) {
+			return breakpoints.length;
+		}
+		int low = 0;
+		int high = breakpoints.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (breakpoints[mid] <= celsius) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Mức mới khi đang ở currentLevel: chỉ rời mức hiện tại khi giá trị vượt ra ngoài
+	 * khoảng của mức đó thêm ít nhất hysteresis độ (chống dao động qua lại ở ngưỡng).
+	 */
+	public int nextLevel(int currentLevel, double celsius) {
+		if (currentLevel < 0 || currentLevel > breakpoints.length || Double.isNaN(celsius)) {
+			return levelOf(celsius);
+		}
+		boolean belowBand = currentLevel > 0 && celsius < breakpoints[currentLevel - 1] - hysteresis;
+		boolean aboveBand = currentLevel < breakpoints.length && celsius >= breakpoints[currentLevel] + hysteresis;
+		return belowBand || aboveBand ? levelOf(celsius) : currentLevel;
+	}
+
+	/**
+	 * Các điểm ngưỡng (bản sao), để phân loại cả cột giá trị mà không gọi levelOf() từng phần tử
+	 */
+	public double[] getBreakpoints() {
+		return breakpoints.clone();
+	}
+
+	/**
+	 * Bản ghi lỗi (cảm biến hỏng trả về NaN), không thuộc mức nhiệt nào
+	 */
+	public static boolean isFault(double celsius) {
+		return Double.isNaN(celsius);
+	}
+
+	public String statusOf(double celsius) {
+		return statusNames[levelOf(celsius)];
+	}
+
+	public String getStatusName(int level) {
+		return statusNames[level];
+	}
+
+	public int getLevelCount() {
+		return statusNames.length;
+	}
+
+	public double getHysteresis() {
+		return hysteresis;
+	}
+
+	@Override
+	public String toString() {
+		return "ThresholdProfile[breakpoints=" + Arrays.toString(breakpoints)
+				+ ", hysteresis=" + hysteresis + "]";
+	}
+}
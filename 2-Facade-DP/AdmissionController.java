@@ -0,0 +1,112 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kiểm soát số đơn hàng xử lý đồng thời (AIMD):
+ * - tryAcquire() từ chối ngay (không xếp hàng) khi số đơn đang chạy đã chạm giới hạn
+ * - Đơn hoàn thành trong targetLatency: giới hạn tăng thêm 1 (chỉ khi đang dùng gần hết giới hạn)
+ * - Đơn chậm hơn targetLatency hoặc quá hạn: giới hạn nhân với backoffRatio
+ *
+ * Mỗi đơn được nhận còn có hạn chót deadlineMillis tính từ lúc nhận.
+ */
+public class AdmissionController {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final long targetLatencyNanos;
+	private final long deadlineNanos;
+
+	// Giới hạn hiện tại (double) lưu dưới dạng bit trong AtomicLong để cập nhật bằng CAS
+	private final AtomicLong limitBits;
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final LongAdder admitted = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder overloaded = new LongAdder();
+
+	public AdmissionController(int initialLimit, int minLimit, int maxLimit,
+	                           long targetLatencyMillis, long deadlineMillis) {
+		if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+			throw new IllegalArgumentException("Require 1 <= minLimit <= initialLimit <= maxLimit");
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.backoffRatio = 0.9;
+		this.targetLatencyNanos = targetLatencyMillis * 1_000_000L;
+		this.deadlineNanos = deadlineMillis * 1_000_000L;
+		this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+	}
+
+	/**
+	 * @return true nếu đơn được nhận; khi đó phải gọi release() đúng một lần
+	 */
+	public boolean tryAcquire() {
+		int limit = getLimit();
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				rejected.increment();
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				admitted.increment();
+				return true;
+			}
+		}
+	}
+
+	public void release(long latencyNanos) {
+		int current = inFlight.getAndDecrement();
+		while (true) {
+			long bits = limitBits.get();
+			double limit = Double.longBitsToDouble(bits);
+			double next;
+			if (latencyNanos > targetLatencyNanos) {
+				next = Math.max(minLimit, limit * backoffRatio);
+			} else if (current * 2 >= limit) {
+				next = Math.min(maxLimit, limit + 1);
+			} else {
+				return;
+			}
+			if (next == limit || limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+				if (latencyNanos > targetLatencyNanos) {
+					overloaded.increment();
+				}
+				return;
+			}
+		}
+	}
+
+	public long getDeadlineNanos() {
+		return deadlineNanos;
+	}
+
+	public int getLimit() {
+		return (int) Double.longBitsToDouble(limitBits.get());
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public long getAdmittedCount() {
+		return admitted.sum();
+	}
+
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	public long getOverloadedCount() {
+		return overloaded.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "AdmissionController[limit=" + getLimit() + ", inFlight=" + getInFlight()
+				+ ", admitted=" + getAdmittedCount() + ", rejected=" + getRejectedCount()
+				+ ", slow=" + getOverloadedCount() + "]";
+	}
+}
@@ -0,0 +1,38 @@
+/**
+ * ShippingService có bộ nhớ đệm báo giá: khóa là (khu vực giao hàng đã chuẩn hóa, dải cân nặng).
+ * Báo giá được tính cho cân nặng lớn nhất của dải nên đúng cho mọi đơn trong dải đó.
+ * Tạo/hủy vận đơn được chuyển thẳng cho service bên dưới.
+ */
+public class CachedShippingService extends ShippingService {
+
+	private final ShippingService rateEngine;
+	private final ShippingQuoteCache cache;
+	private final double weightBand;
+
+	public CachedShippingService(ShippingService rateEngine, ShippingQuoteCache cache, double weightBand) {
+		this.rateEngine = rateEngine;
+		this.cache = cache;
+		this.weightBand = weightBand;
+	}
+
+	@Override
+	public double calculateShippingCost(String address, double weight) {
+		long band = (long) Math.ceil(weight / weightBand);
+		String key = regionOf(address) + "|" + band;
+		return cache.get(key, () -> rateEngine.calculateShippingCost(address, band * weightBand));
+	}
+
+	@Override
+	public String createShipment(String address, String productId) {
+		return rateEngine.createShipment(address, productId);
+	}
+
+	@Override
+	public void cancelShipment(String trackingNumber) {
+		rateEngine.cancelShipment(trackingNumber);
+	}
+
+	public ShippingQuoteCache getCache() {
+		return cache;
+	}
+}
@@ -1,7 +1,18 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 public class ECommerceDemo {
 
 	public static void main(String[] args) {
-		OrderFacade orderFacade = new OrderFacade();
+		InventorySystem inventory = new InventorySystem();
+		inventory.addStock("LAPTOP-X1", 10);
+		inventory.addStock("MOUSE-M3", 50);
+		inventory.addStock("PHONE-P9", 100, 4);
+		inventory.addStock("WATCH-W2", 5);
+
+		OrderFacade orderFacade = new OrderFacade(inventory, new PaymentProcessor(),
+				new ShippingService(), new NotificationService());
 		System.out.println("--- CASE 1: Place Order (Success) ---");
 		String orderId = orderFacade.placeOrder(
 				"CUST001", "LAPTOP-X1", 2,
@@ -15,11 +26,159 @@ public class ECommerceDemo {
 		}
 
 		System.out.println("\n--- CASE 2: Cancel Order ---");
-		boolean cancelled = orderFacade.cancelOrder(
-				orderId, "LAPTOP-X1", 2, "TXN123456", "SHIP789");
+		System.out.println("  " + orderFacade.getOrder(orderId));
+		boolean cancelled = orderFacade.cancelOrder(orderId);
 
 		if (cancelled) {
 			System.out.println("✓ Order cancelled successfully");
 		}
+
+		// ID Snowflake vượt 10^18 (sau khoảng năm 2032) vẫn phải tra cứu được
+		OrderStore farFutureOrders = new OrderStore(16);
+		String farFutureOrderId = "ORD" + Long.MAX_VALUE;
+		farFutureOrders.put(farFutureOrderId, "LAPTOP-X1", 1, "TXN" + (Long.MAX_VALUE - 1), "SHIP" + (Long.MAX_VALUE - 2));
+		OrderRecord farFutureOrder = farFutureOrders.get(farFutureOrderId);
+		if (farFutureOrder != null && farFutureOrder.getTransactionId().equals("TXN" + (Long.MAX_VALUE - 1))) {
+			System.out.println("✓ 19-digit order IDs round-trip: " + farFutureOrder);
+		}
+
+		System.out.println("\n--- CASE 3: Place Order Async ---");
+		String asyncOrderId = orderFacade.placeOrderAsync(
+				"CUST002", "MOUSE-M3", 1,
+				"4532-9999-0000", "456",
+				"45 Le Loi, Da Nang",
+				"buyer@email.com",
+				"+84-987-654-321").join();
+
+		if (asyncOrderId != null) {
+			System.out.println("✓ Async order placed successfully: " + asyncOrderId);
+		}
+
+		System.out.println("\n--- CASE 4: Place Orders in Batch ---");
+		List<OrderRequest> flashSale = new ArrayList<>();
+		flashSale.add(new OrderRequest("CUST010", "PHONE-P9", 1, "4532-0000-0001", "111",
+				"12 Tran Phu, Hanoi", "c10@email.com", "+84-100-000-010"));
+		flashSale.add(new OrderRequest("CUST011", "PHONE-P9", 2, "4532-0000-0002", "222",
+				"7 Hai Ba Trung, Hanoi", "c11@email.com", "+84-100-000-011"));
+		flashSale.add(new OrderRequest("CUST012", "WATCH-W2", 1, "", "333",
+				"9 Nguyen Hue, Ho Chi Minh City", "c12@email.com", "+84-100-000-012"));
+
+		for (OrderResult result : orderFacade.placeOrders(flashSale)) {
+			System.out.println((result.isSuccess() ? "✓ " : "✗ ") + result);
+		}
+
+		System.out.println("\n--- CASE 5: Out of Stock ---");
+		String rejected = orderFacade.placeOrder(
+				"CUST020", "WATCH-W2", 10,
+				"4532-1111-2222", "789",
+				"1 Bach Dang, Hai Phong",
+				"late@email.com",
+				"+84-555-000-111");
+
+		if (rejected == null) {
+			System.out.println("✗ Order rejected, WATCH-W2 stock left: " + inventory.getAvailableStock("WATCH-W2"));
+		}
+
+		System.out.println("\n--- CASE 6: Saga Log Recovery ---");
+		try {
+			java.nio.file.Path logFile = java.nio.file.Files.createTempFile("order-saga", ".log");
+			try (SagaLog sagaLog = new SagaLog(logFile)) {
+				// Giả lập một đơn bị crash sau khi đã trừ tiền
+				sagaLog.logIntent("ORD-CRASHED", SagaLog.BEGIN, "LAPTOP-X1 1");
+				sagaLog.logResult("ORD-CRASHED", SagaLog.RESERVED, "999");
+				sagaLog.logIntent("ORD-CRASHED", SagaLog.CHARGE, null);
+				sagaLog.logResult("ORD-CRASHED", SagaLog.CHARGED, "TXN-LOST");
+				sagaLog.logResult("ORD-CRASHED", SagaLog.CONFIRMED, null);
+			}
+			try (SagaLog sagaLog = new SagaLog(logFile)) {
+				OrderFacade recovered = new OrderFacade(inventory, new PaymentProcessor(),
+						new ShippingService(), new NotificationService(), sagaLog);
+				int compensated = recovered.recoverPendingOrders();
+				System.out.println("✓ Compensated " + compensated + " unfinished order(s)");
+			}
+			java.nio.file.Files.deleteIfExists(logFile);
+		} catch (java.io.IOException e) {
+			System.out.println("✗ Saga log error: " + e.getMessage());
+		}
+
+		System.out.println("\n--- CASE 7: Notifications via Outbox ---");
+		try (NotificationOutbox outbox = new NotificationOutbox(new NotificationService(), 32, 5, 100)) {
+			orderFacade.setNotificationOutbox(outbox);
+			String outboxOrderId = orderFacade.placeOrder(
+					"CUST030", "MOUSE-M3", 3,
+					"4532-3333-4444", "321",
+					"88 Ly Thuong Kiet, Hue",
+					"fast@email.com",
+					"+84-222-333-444");
+			System.out.println("✓ Order completed, notifications queued: " + outboxOrderId);
+		}
+		orderFacade.setNotificationOutbox(null);
+
+		System.out.println("\n--- CASE 8: Cached Shipping Quotes ---");
+		CachedShippingService cachedShipping = new CachedShippingService(
+				new ShippingService(), new ShippingQuoteCache(10_000, 60_000), 1.0);
+		cachedShipping.calculateShippingCost("12 Tran Phu, Hanoi", 0.5);
+		cachedShipping.calculateShippingCost("7 Hai Ba Trung, HANOI", 0.8);
+		cachedShipping.calculateShippingCost("9 Nguyen Hue, Ho Chi Minh City", 0.5);
+		System.out.println("✓ " + cachedShipping.getCache());
+
+		System.out.println("\n--- CASE 9: Admission Control ---");
+		AdmissionController admission = new AdmissionController(1, 1, 64, 50, 500);
+		orderFacade.setAdmissionController(admission);
+		admission.tryAcquire(); // một đơn khác đang chiếm chỗ duy nhất
+		String shedOrderId = orderFacade.placeOrder(
+				"CUST008", "MOUSE-M3", 1,
+				"4532-5555-6666", "321",
+				"3 Hung Vuong, Hue",
+				"late@email.com",
+				"+84-555-666-777");
+		admission.release(0);
+		if (shedOrderId == null) {
+			System.out.println("✓ Order rejected while saturated: " + admission);
+		}
+		orderFacade.setAdmissionController(null);
+
+		System.out.println("\n--- CASE 10: Single-Writer Order Lanes ---");
+		try (OrderLanes lanes = new OrderLanes(4)) {
+			lanes.addStock("LAPTOP-X1", 3);
+			lanes.addStock("MOUSE-M3", 10);
+			OrderFacade laneFacade = new OrderFacade(lanes, new PaymentProcessor(), new ShippingService(),
+					new NotificationService());
+			String laneOrderId = laneFacade.placeOrder(
+					"CUST009", "LAPTOP-X1", 1,
+					"4532-7777-8888", "654",
+					"5 Nguyen Trai, Hanoi",
+					"bundle@email.com",
+					"+84-777-888-999");
+			System.out.println("✓ Order placed through lanes: " + laneOrderId);
+			if (laneFacade.cancelOrder(laneOrderId)) {
+				System.out.println("✓ Lane order cancelled by id, LAPTOP-X1=" + lanes.getAvailableStock("LAPTOP-X1"));
+			}
+
+			List<OrderRequest> bundle = new ArrayList<>();
+			bundle.add(new OrderRequest("CUST009", "MOUSE-M3", 2, "4532-7777-8888", "654",
+					"5 Nguyen Trai, Hanoi", "bundle@email.com", "+84-777-888-999"));
+			bundle.add(new OrderRequest("CUST009", "LAPTOP-X1", 5, "4532-7777-8888", "654",
+					"5 Nguyen Trai, Hanoi", "bundle@email.com", "+84-777-888-999"));
+			if (!lanes.reserveAll(bundle)) {
+				System.out.println("✓ Multi-SKU reservation rolled back: LAPTOP-X1=" + lanes.getAvailableStock("LAPTOP-X1")
+						+ ", MOUSE-M3=" + lanes.getAvailableStock("MOUSE-M3"));
+			}
+		}
+
+		System.out.println("\n--- CASE 11: Cached Stock Availability ---");
+		StockAvailabilityCache availabilityCache = new StockAvailabilityCache(1_000);
+		inventory.setAvailabilityCache(availabilityCache);
+		inventory.checkStock("PHONE-P9", 1);
+		inventory.checkStock("PHONE-P9", 1);
+		inventory.reserveProduct("PHONE-P9", 1);
+		inventory.checkStock("PHONE-P9", 1);
+		System.out.println("✓ " + availabilityCache);
+		inventory.setAvailabilityCache(null);
+
+		System.out.println("\n--- CASE 12: Per-Stage Latency ---");
+		for (Map.Entry<OrderMetrics.Stage, LatencySnapshot> stage : orderFacade.getMetrics().snapshot().entrySet()) {
+			System.out.println("  " + stage.getKey() + ": " + stage.getValue());
+		}
 	}
 }
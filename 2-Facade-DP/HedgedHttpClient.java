@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP client dùng chung cho các client từ xa của facade:
+ * - Một java.net.http.HttpClient giữ kết nối keep-alive để tái sử dụng
+ * - Mỗi lần gửi có timeout riêng
+ * - Hedging: nếu lần gửi đầu chưa có kết quả sau p95 độ trễ đã quan sát, gửi thêm một bản dự phòng
+ *   và lấy kết quả nào về trước; lần gửi đầu lỗi thì bản dự phòng được gửi ngay (retry)
+ *
+ * Lệnh ghi (POST) mang header Idempotency-Key giống nhau ở cả hai bản để server chỉ thực hiện một lần.
+ * Response 204 (server không có giá trị trả về) được trả cho bên gọi là null; tham số null không được gửi.
+ */
+public class HedgedHttpClient {
+
+	private static final int MIN_SAMPLES_BEFORE_HEDGING = 20;
+	private static final int HEDGE_DELAY_REFRESH_INTERVAL = 64;
+
+	private final HttpClient http;
+	private final URI baseUri;
+	private final Duration callTimeout;
+	private final boolean hedging;
+	private final LatencyHistogram latencies = new LatencyHistogram();
+	private final AtomicInteger samples = new AtomicInteger();
+	private volatile long hedgeDelayNanos = -1;
+
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder hedges = new LongAdder();
+	private final LongAdder hedgeWins = new LongAdder();
+
+	public HedgedHttpClient(URI baseUri, long callTimeoutMillis) {
+		this(baseUri, callTimeoutMillis, true);
+	}
+
+	public HedgedHttpClient(URI baseUri, long callTimeoutMillis, boolean hedging) {
+		this.baseUri = baseUri;
+		this.callTimeout = Duration.ofMillis(callTimeoutMillis);
+		this.hedging = hedging;
+		this.http = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(callTimeout)
+				.build();
+	}
+
+	/**
+	 * Lệnh đọc: GET path?query
+	 */
+	public String get(String path, String... params) {
+		HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path + "?" + form(params)))
+				.timeout(callTimeout)
+				.GET()
+				.build();
+		return send(request);
+	}
+
+	/**
+	 * Lệnh ghi: POST dạng form, kèm Idempotency-Key ngẫu nhiên
+	 */
+	public String post(String path, String... params) {
+		return postIdempotent(path, UUID.randomUUID().toString(), params);
+	}
+
+	/**
+	 * Lệnh ghi với Idempotency-Key do bên gọi chọn, để tra lại kết quả khi lời gọi lỗi/timeout
+	 */
+	public String postIdempotent(String path, String idempotencyKey, String... params) {
+		HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+				.timeout(callTimeout)
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.header("Idempotency-Key", idempotencyKey)
+				.POST(HttpRequest.BodyPublishers.ofString(form(params)))
+				.build();
+		return send(request);
+	}
+
+	private String send(HttpRequest request) {
+		calls.increment();
+		CompletableFuture<String> result = new CompletableFuture<>();
+		AtomicInteger outstanding = new AtomicInteger(1);
+		AtomicReference<Throwable> lastError = new AtomicReference<>();
+		AtomicBoolean backupSent = new AtomicBoolean();
+		Runnable sendBackup = () -> {
+			if (result.isDone() || backupSent.get()) {
+				return;
+			}
+			// Tăng outstanding trước khi chiếm quyền gửi: lần gửi đầu lỗi lúc này sẽ không kết thúc lời gọi
+			// trong khi bản dự phòng vẫn được gửi đi
+			outstanding.incrementAndGet();
+			if (!result.isDone() && backupSent.compareAndSet(false, true)) {
+				hedges.increment();
+				attempt(request, result, outstanding, lastError, null, true);
+			} else if (outstanding.decrementAndGet() == 0) {
+				result.completeExceptionally(lastError.get());
+			}
+		};
+		attempt(request, result, outstanding, lastError, sendBackup, false);
+
+		long delay = hedgeDelayNanos;
+		if (hedging && delay > 0) {
+			Executor hedgeTimer = CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS);
+			hedgeTimer.execute(sendBackup);
+		}
+		try {
+			return result.join();
+		} catch (CompletionException e) {
+			throw new IllegalStateException("Remote call " + request.method() + " " + request.uri().getPath()
+					+ " failed: " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	private void attempt(HttpRequest request, CompletableFuture<String> result, AtomicInteger outstanding,
+	                     AtomicReference<Throwable> lastError, Runnable onFailure, boolean backup) {
+		long start = System.nanoTime();
+		http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, sendError) -> {
+			Throwable error = sendError;
+			if (error == null && response.statusCode() != 200 && response.statusCode() != 204) {
+				error = new IOException("HTTP " + response.statusCode() + ": " + response.body());
+			}
+			if (error == null) {
+				recordLatency(System.nanoTime() - start);
+				if (result.complete(response.statusCode() == 204 ? null : response.body()) && backup) {
+					hedgeWins.increment();
+				}
+				return;
+			}
+			lastError.set(error);
+			if (onFailure != null) {
+				onFailure.run();
+			}
+			if (outstanding.decrementAndGet() == 0) {
+				result.completeExceptionally(error);
+			}
+		});
+	}
+
+	private void recordLatency(long nanos) {
+		latencies.record(nanos);
+		int count = samples.incrementAndGet();
+		if (count == MIN_SAMPLES_BEFORE_HEDGING || count % HEDGE_DELAY_REFRESH_INTERVAL == 0) {
+			hedgeDelayNanos = latencies.getValueAtPercentile(95.0);
+		}
+	}
+
+	private static String form(String... params) {
+		StringBuilder form = new StringBuilder();
+		for (int i = 0; i + 1 < params.length; i += 2) {
+			if (params[i + 1] == null) {
+				continue;
+			}
+			if (form.length() > 0) {
+				form.append('&');
+			}
+			form.append(URLEncoder.encode(params[i], StandardCharsets.UTF_8)).append('=')
+					.append(URLEncoder.encode(params[i + 1], StandardCharsets.UTF_8));
+		}
+		return form.toString();
+	}
+
+	public long getHedgeDelayNanos() {
+		return hedgeDelayNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "HedgedHttpClient[" + baseUri + ", calls=" + calls.sum() + ", hedged=" + hedges.sum()
+				+ ", hedgeWins=" + hedgeWins.sum() + ", hedgeAfter=" + (hedgeDelayNanos / 1000) + "us]";
+	}
+}
@@ -0,0 +1,83 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bộ sinh ID 64 bit kiểu Snowflake, lock-free và tăng dần theo thời gian:
+ *
+ *   | 41 bit: ms kể từ EPOCH | 10 bit: node id | 12 bit: sequence |
+ *
+ * Trạng thái (timestamp, sequence) được gói trong một AtomicLong và cập nhật bằng CAS.
+ * Khi đồng hồ lùi lại, bộ sinh tiếp tục dùng timestamp cuối cùng đã cấp nên ID không bao giờ
+ * giảm hay trùng; khi hết sequence trong một ms, nó mượn ms kế tiếp.
+ */
+public class IdGenerator {
+
+	public static final long EPOCH = 1735689600000L; // 2025-01-01T00:00:00Z
+
+	private static final int NODE_BITS = 10;
+	private static final int SEQUENCE_BITS = 12;
+	private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+	private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+	private final long nodeId;
+	private final AtomicLong state = new AtomicLong();
+
+	public IdGenerator(long nodeId) {
+		if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+			throw new IllegalArgumentException("Node id must be in [0, " + MAX_NODE_ID + "]: " + nodeId);
+		}
+		this.nodeId = nodeId;
+	}
+
+	// Bill Pugh Singleton - node id lấy từ system property "node.id"
+	private static class DefaultHolder {
+		private static final IdGenerator INSTANCE = new IdGenerator(Long.getLong("node.id", 0L));
+	}
+
+	public static IdGenerator getDefault() {
+		return DefaultHolder.INSTANCE;
+	}
+
+	public long nextId() {
+		while (true) {
+			long current = state.get();
+			long lastTimestamp = current >>> SEQUENCE_BITS;
+			long now = currentTimeMillis() - EPOCH;
+			long next;
+			if (now > lastTimestamp) {
+				next = now << SEQUENCE_BITS;
+			} else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+				// Cùng ms, hoặc đồng hồ bị lùi: tăng sequence trên timestamp cũ
+				next = current + 1;
+			} else {
+				next = (lastTimestamp + 1) << SEQUENCE_BITS;
+			}
+			if (state.compareAndSet(current, next)) {
+				long timestamp = next >>> SEQUENCE_BITS;
+				long sequence = next & SEQUENCE_MASK;
+				return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+			}
+		}
+	}
+
+	/**
+	 * ID dạng chuỗi có tiền tố, vd. "ORD" + id
+	 */
+	public String nextId(String prefix) {
+		return prefix + nextId();
+	}
+
+	/**
+	 * Thời điểm (epoch ms) được mã hóa trong ID
+	 */
+	public static long timestampOf(long id) {
+		return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+	}
+
+	public static long nodeIdOf(long id) {
+		return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+	}
+
+	protected long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+}
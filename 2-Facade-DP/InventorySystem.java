@@ -1,16 +1,87 @@
 public class InventorySystem {
 
+	private static final long DEFAULT_RESERVATION_TTL_MILLIS = 15 * 60 * 1000L;
+
+	private final StockLedger ledger;
+	private volatile StockAvailabilityCache availabilityCache;
+
+	public InventorySystem() {
+		this(DEFAULT_RESERVATION_TTL_MILLIS);
+	}
+
+	public InventorySystem(long reservationTtlMillis) {
+		this.ledger = new StockLedger(reservationTtlMillis);
+	}
+
+	/**
+	 * Cho lớp con tự quản lý tồn kho ở nơi khác (dịch vụ từ xa, làn đơn luồng): không tạo StockLedger
+	 * và luồng hết hạn giữ chỗ của nó. Lớp con phải ghi đè mọi thao tác tồn kho.
+	 */
+	protected InventorySystem(boolean withLocalLedger) {
+		this.ledger = withLocalLedger ? new StockLedger(DEFAULT_RESERVATION_TTL_MILLIS) : null;
+	}
+
+	public void addStock(String productId, int quantity) {
+		System.out.println("  [Inventory] Adding " + quantity + " units of product: " + productId);
+		ledger.addStock(productId, quantity);
+	}
+
+	public void addStock(String productId, int quantity, int stripes) {
+		System.out.println("  [Inventory] Adding " + quantity + " units of hot product: " + productId);
+		ledger.addStock(productId, quantity, stripes);
+	}
+
+	/**
+	 * Đặt bộ nhớ đệm cho checkStock (null để tắt). Mọi thay đổi tồn kho đều làm mất hiệu lực
+	 * mục tương ứng; kết quả checkStock chỉ mang tính tham khảo, reserveProduct/tryReserve mới quyết định.
+	 */
+	public void setAvailabilityCache(StockAvailabilityCache availabilityCache) {
+		if (ledger == null) {
+			throw new IllegalStateException("No local stock ledger to cache");
+		}
+		this.availabilityCache = availabilityCache;
+		ledger.setChangeListener(availabilityCache == null ? null : availabilityCache::invalidate);
+	}
+
 	public boolean checkStock(String productId, int quantity) {
 		System.out.println("  [Inventory] Checking stock for product: " + productId);
-		return true;
+		StockAvailabilityCache cache = availabilityCache;
+		if (cache != null) {
+			return cache.get(productId, ledger::available) >= quantity;
+		}
+		return ledger.available(productId) >= quantity;
 	}
 
 	public boolean reserveProduct(String productId, int quantity) {
 		System.out.println("  [Inventory] Reserving " + quantity + " units of product: " + productId);
-		return true;
+		return ledger.take(productId, quantity);
 	}
 
 	public void releaseProduct(String productId, int quantity) {
 		System.out.println("  [Inventory] Releasing " + quantity + " units of product: " + productId);
+		ledger.release(productId, quantity);
+	}
+
+	/**
+	 * Kiểm tra và giữ chỗ trong một thao tác nguyên tử; giữ chỗ tự hết hạn nếu không được xác nhận.
+	 * @return mã giữ chỗ, hoặc -1 nếu không đủ hàng
+	 */
+	public long tryReserve(String productId, int quantity) {
+		System.out.println("  [Inventory] Reserving " + quantity + " units of product: " + productId);
+		return ledger.reserve(productId, quantity);
+	}
+
+	public boolean confirmReservation(long reservationId) {
+		System.out.println("  [Inventory] Confirming reservation: " + reservationId);
+		return ledger.confirm(reservationId);
+	}
+
+	public boolean cancelReservation(long reservationId) {
+		System.out.println("  [Inventory] Cancelling reservation: " + reservationId);
+		return ledger.cancel(reservationId);
+	}
+
+	public long getAvailableStock(String productId) {
+		return ledger.available(productId);
 	}
 }
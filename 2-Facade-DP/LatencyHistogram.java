@@ -0,0 +1,94 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram độ trễ kiểu HdrHistogram, lock-free:
+ * - Bucket log-tuyến tính: mỗi lũy thừa của 2 chia thành 32 bucket con (sai số tương đối ~3%)
+ * - record() chỉ tính chỉ số bucket bằng phép dịch bit và tăng một ô AtomicLongArray
+ *
+ * Giá trị tính bằng nanosecond; giá trị âm được ghi như 0.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong maxValue = new AtomicLong();
+
+	public void record(long nanos) {
+		long value = Math.max(nanos, 0);
+		counts.getAndIncrement(indexOf(value));
+		long max = maxValue.get();
+		while (value > max && !maxValue.compareAndSet(max, value)) {
+			max = maxValue.get();
+		}
+	}
+
+	public LatencySnapshot snapshot() {
+		long[] copy = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			copy[i] = counts.get(i);
+			total += copy[i];
+		}
+		long max = maxValue.get();
+		return new LatencySnapshot(total,
+				valueAtPercentile(copy, total, 50.0, max),
+				valueAtPercentile(copy, total, 99.0, max),
+				valueAtPercentile(copy, total, 99.9, max),
+				max);
+	}
+
+	/**
+	 * Giá trị tại một phân vị bất kỳ (vd. 95.0), 0 nếu chưa có mẫu
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long[] copy = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			copy[i] = counts.get(i);
+			total += copy[i];
+		}
+		return valueAtPercentile(copy, total, percentile, maxValue.get());
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+		maxValue.set(0);
+	}
+
+	// idx = shift * 32 + (value >>> shift), với shift sao cho (value >>> shift) nằm trong [32, 63]
+	static int indexOf(long value) {
+		int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+		return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+	}
+
+	// Giá trị lớn nhất thuộc bucket idx
+	static long highestValueAt(int index) {
+		if (index < 2 * SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index >>> SUB_BUCKET_BITS) - 1;
+		long top = index - ((long) shift << SUB_BUCKET_BITS);
+		return ((top + 1) << shift) - 1;
+	}
+
+	private static long valueAtPercentile(long[] counts, long total, double percentile, long max) {
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(highestValueAt(i), max);
+			}
+		}
+		return max;
+	}
+}
@@ -0,0 +1,45 @@
+/**
+ * Ảnh chụp bất biến của một LatencyHistogram (đơn vị nanosecond)
+ */
+public class LatencySnapshot {
+
+	private final long count;
+	private final long p50;
+	private final long p99;
+	private final long p999;
+	private final long max;
+
+	public LatencySnapshot(long count, long p50, long p99, long p999, long max) {
+		this.count = count;
+		this.p50 = p50;
+		this.p99 = p99;
+		this.p999 = p999;
+		this.max = max;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getP50() {
+		return p50;
+	}
+
+	public long getP99() {
+		return p99;
+	}
+
+	public long getP999() {
+		return p999;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+				count, p50 / 1000.0, p99 / 1000.0, p999 / 1000.0, max / 1000.0);
+	}
+}
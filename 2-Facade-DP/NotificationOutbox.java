@@ -0,0 +1,172 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Outbox cho thông báo đơn hàng: facade chỉ ghi bản ghi vào hàng đợi cục bộ rồi trả về ngay,
+ * một luồng dispatcher nền gom bản ghi theo lô và gửi mỗi kênh bằng một lời gọi batch
+ * (NotificationService.sendEmailConfirmations / sendSMSNotifications).
+ *
+ * Enqueue giữ read lock, close() giữ write lock khi đổi trạng thái, nên mọi bản ghi được nhận
+ * đều nằm trong hàng đợi trước khi dispatcher thấy outbox đã đóng.
+ *
+ * Lần gửi lỗi được thử lại với backoff tăng dần (DelayQueue giữ bản ghi tới lượt thử kế tiếp);
+ * quá maxAttempts thì chuyển vào danh sách dead letter.
+ */
+public class NotificationOutbox implements AutoCloseable {
+
+	private final NotificationService notificationService;
+	private final int batchSize;
+	private final int maxAttempts;
+	private final long initialBackoffMillis;
+
+	private final DelayQueue<NotificationRecord> queue = new DelayQueue<>();
+	private final List<NotificationRecord> deadLetters = new CopyOnWriteArrayList<>();
+	private final LongAdder sentCount = new LongAdder();
+	private final LongAdder retryCount = new LongAdder();
+	private final Thread dispatcher;
+	private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+	private volatile boolean running = true;
+
+	public NotificationOutbox(NotificationService notificationService, int batchSize, int maxAttempts,
+	                          long initialBackoffMillis) {
+		this.notificationService = notificationService;
+		this.batchSize = batchSize;
+		this.maxAttempts = maxAttempts;
+		this.initialBackoffMillis = initialBackoffMillis;
+		this.dispatcher = new Thread(this::dispatchLoop, "notification-outbox");
+		this.dispatcher.setDaemon(true);
+		this.dispatcher.start();
+	}
+
+	public void enqueueEmail(String email, String orderDetails) {
+		enqueue(new NotificationRecord(NotificationRecord.Channel.EMAIL, email, orderDetails));
+	}
+
+	public void enqueueSMS(String phone, String message) {
+		enqueue(new NotificationRecord(NotificationRecord.Channel.SMS, phone, message));
+	}
+
+	private void enqueue(NotificationRecord record) {
+		stateLock.readLock().lock();
+		try {
+			if (!running) {
+				throw new IllegalStateException("Notification outbox is closed");
+			}
+			queue.add(record);
+		} finally {
+			stateLock.readLock().unlock();
+		}
+	}
+
+	private void dispatchLoop() {
+		List<NotificationRecord> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				NotificationRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+			} catch (InterruptedException e) {
+				return;
+			}
+			dispatch(batch);
+			batch.clear();
+		}
+	}
+
+	private void dispatch(List<NotificationRecord> batch) {
+		dispatch(batch, NotificationRecord.Channel.EMAIL);
+		dispatch(batch, NotificationRecord.Channel.SMS);
+	}
+
+	// Gửi các bản ghi của một kênh trong lô bằng một lời gọi batch
+	private void dispatch(List<NotificationRecord> batch, NotificationRecord.Channel channel) {
+		List<NotificationRecord> records = new ArrayList<>(batch.size());
+		for (NotificationRecord record : batch) {
+			if (record.getChannel() == channel) {
+				records.add(record);
+			}
+		}
+		if (records.isEmpty()) {
+			return;
+		}
+		String[] recipients = new String[records.size()];
+		String[] contents = new String[records.size()];
+		for (int i = 0; i < records.size(); i++) {
+			recipients[i] = records.get(i).getRecipient();
+			contents[i] = records.get(i).getContent();
+		}
+
+		boolean[] sent;
+		String error = "send failed";
+		try {
+			sent = channel == NotificationRecord.Channel.EMAIL
+					? notificationService.sendEmailConfirmations(recipients, contents)
+					: notificationService.sendSMSNotifications(recipients, contents);
+		} catch (RuntimeException e) {
+			// Cả lời gọi batch lỗi: coi như mọi bản ghi trong đó đều chưa gửi được
+			sent = new boolean[records.size()];
+			error = e.getMessage();
+		}
+		for (int i = 0; i < records.size(); i++) {
+			if (sent[i]) {
+				sentCount.increment();
+			} else {
+				retryOrGiveUp(records.get(i), error);
+			}
+		}
+	}
+
+	private void retryOrGiveUp(NotificationRecord record, String error) {
+		if (record.getAttempts() + 1 >= maxAttempts) {
+			System.out.println("  [Outbox] Giving up on " + record + ": " + error);
+			deadLetters.add(record);
+		} else {
+			record.scheduleRetry(initialBackoffMillis << record.getAttempts());
+			retryCount.increment();
+			queue.add(record);
+		}
+	}
+
+	public int getPendingCount() {
+		return queue.size();
+	}
+
+	public long getSentCount() {
+		return sentCount.sum();
+	}
+
+	public long getRetryCount() {
+		return retryCount.sum();
+	}
+
+	public List<NotificationRecord> getDeadLetters() {
+		return deadLetters;
+	}
+
+	/**
+	 * Dừng nhận xử lý mới và chờ dispatcher gửi hết các bản ghi còn lại (kể cả đang chờ thử lại).
+	 */
+	@Override
+	public void close() {
+		stateLock.writeLock().lock();
+		try {
+			running = false;
+		} finally {
+			stateLock.writeLock().unlock();
+		}
+		try {
+			dispatcher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
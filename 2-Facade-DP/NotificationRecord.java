@@ -0,0 +1,59 @@
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Một thông báo chờ gửi trong NotificationOutbox.
+ */
+public class NotificationRecord implements Delayed {
+
+	public enum Channel { EMAIL, SMS }
+
+	private final Channel channel;
+	private final String recipient;
+	private final String content;
+	private int attempts;
+	private long nextAttemptNanos;
+
+	public NotificationRecord(Channel channel, String recipient, String content) {
+		this.channel = channel;
+		this.recipient = recipient;
+		this.content = content;
+		this.nextAttemptNanos = System.nanoTime();
+	}
+
+	public Channel getChannel() {
+		return channel;
+	}
+
+	public String getRecipient() {
+		return recipient;
+	}
+
+	public String getContent() {
+		return content;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	void scheduleRetry(long backoffMillis) {
+		attempts++;
+		nextAttemptNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+	}
+
+	@Override
+	public long getDelay(TimeUnit unit) {
+		return unit.convert(nextAttemptNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public int compareTo(Delayed other) {
+		return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+	}
+
+	@Override
+	public String toString() {
+		return channel + " to " + recipient + " (attempts=" + attempts + ")";
+	}
+}
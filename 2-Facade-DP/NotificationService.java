@@ -9,4 +9,38 @@ public class NotificationService {
 		System.out.println("  [Notification] Sending SMS to: " + phone);
 		System.out.println("    Message: " + message);
 	}
+
+	/**
+	 * Gửi nhiều email trong một lần gọi; phần tử false nghĩa là email đó gửi thất bại.
+	 */
+	public boolean[] sendEmailConfirmations(String[] emails, String[] orderDetails) {
+		System.out.println("  [Notification] Sending batch of " + emails.length + " emails");
+		boolean[] sent = new boolean[emails.length];
+		for (int i = 0; i < emails.length; i++) {
+			try {
+				sendEmailConfirmation(emails[i], orderDetails[i]);
+				sent[i] = true;
+			} catch (RuntimeException e) {
+				sent[i] = false;
+			}
+		}
+		return sent;
+	}
+
+	/**
+	 * Gửi nhiều SMS trong một lần gọi; phần tử false nghĩa là SMS đó gửi thất bại.
+	 */
+	public boolean[] sendSMSNotifications(String[] phones, String[] messages) {
+		System.out.println("  [Notification] Sending batch of " + phones.length + " SMS");
+		boolean[] sent = new boolean[phones.length];
+		for (int i = 0; i < phones.length; i++) {
+			try {
+				sendSMSNotification(phones[i], messages[i]);
+				sent[i] = true;
+			} catch (RuntimeException e) {
+				sent[i] = false;
+			}
+		}
+		return sent;
+	}
 }
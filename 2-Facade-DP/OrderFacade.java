@@ -1,59 +1,170 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class OrderFacade {
 
+	// Tồn kho nạp sẵn cho facade mặc định (mô phỏng)
+	private static final String[] DEFAULT_PRODUCTS = {"LAPTOP-X1", "MOUSE-M3", "PHONE-P9", "WATCH-W2"};
+	private static final int DEFAULT_STOCK = 1000;
+
 	private InventorySystem inventory;
 	private PaymentProcessor payment;
 	private ShippingService shipping;
 	private NotificationService notification;
+	private SagaLog sagaLog;
+	private NotificationOutbox outbox;
+	private AdmissionController admission;
+	private final OrderMetrics metrics = new OrderMetrics();
+	private final OrderStore orders = new OrderStore(1024);
+
+	// Luồng chạy các bước độc lập của placeOrderAsync
+	private final ExecutorService asyncExecutor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "order-async");
+		thread.setDaemon(true);
+		return thread;
+	});
 
+	/**
+	 * Facade với các hệ thống con mô phỏng; kho được nạp sẵn DEFAULT_STOCK đơn vị cho mỗi sản phẩm
+	 * trong DEFAULT_PRODUCTS. Sản phẩm khác sẽ báo hết hàng - dùng constructor nhận InventorySystem
+	 * đã nạp hàng cho danh mục thật.
+	 */
 	public OrderFacade() {
 		this.inventory = new InventorySystem();
+		for (String productId : DEFAULT_PRODUCTS) {
+			inventory.addStock(productId, DEFAULT_STOCK);
+		}
 		this.payment = new PaymentProcessor();
 		this.shipping = new ShippingService();
 		this.notification = new NotificationService();
 	}
 
+	public OrderFacade(InventorySystem inventory, PaymentProcessor payment,
+	                   ShippingService shipping, NotificationService notification) {
+		this.inventory = inventory;
+		this.payment = payment;
+		this.shipping = shipping;
+		this.notification = notification;
+	}
+
+	/**
+	 * Gửi thông báo qua outbox: đơn hàng hoàn tất ngay, không chờ email/SMS.
+	 */
+	public void setNotificationOutbox(NotificationOutbox outbox) {
+		this.outbox = outbox;
+	}
+
+	/**
+	 * Giới hạn số đơn placeOrder chạy đồng thời: khi quá tải đơn bị từ chối ngay (trả về null),
+	 * đơn được nhận phải xong trước hạn chót, nếu không sẽ bị bù trừ.
+	 */
+	public void setAdmissionController(AdmissionController admission) {
+		this.admission = admission;
+	}
+
+	/**
+	 * Facade có nhật ký saga: mọi bước của placeOrder (kể cả các bước bù trừ) được ghi trước khi chạy
+	 * để recoverPendingOrders() bù trừ được các đơn dở dang sau khi crash.
+	 * Chỉ placeOrder ghi nhật ký; placeOrderAsync và placeOrders không được khôi phục sau crash.
+	 */
+	public OrderFacade(InventorySystem inventory, PaymentProcessor payment,
+	                   ShippingService shipping, NotificationService notification, SagaLog sagaLog) {
+		this(inventory, payment, shipping, notification);
+		this.sagaLog = sagaLog;
+	}
+
 	public String placeOrder(String customerId, String productId, int quantity,
 	                         String cardNumber, String cvv, String address,
 	                         String email, String phone) {
 
 		System.out.println("=== Order Facade: Processing Order ===");
 
-		String orderId = "ORD" + System.currentTimeMillis();
+		long startNanos = System.nanoTime();
+		AdmissionController admission = this.admission;
+		if (admission != null && !admission.tryAcquire()) {
+			System.out.println("  [Facade] REJECTED: System overloaded, try again later");
+			return null;
+		}
+		long deadline = admission != null ? startNanos + admission.getDeadlineNanos() : 0;
+		String orderId = IdGenerator.getDefault().nextId("ORD");
 		String transactionId = null;
 		String trackingNumber = null;
+		long reservationId = -1;
+		boolean confirmed = false;
 
 		try {
-			if (!inventory.checkStock(productId, quantity)) {
+			logIntent(orderId, SagaLog.BEGIN, productId + " " + quantity);
+			long t = System.nanoTime();
+			reservationId = inventory.tryReserve(productId, quantity);
+			metrics.record(OrderMetrics.Stage.RESERVE, t);
+			if (reservationId < 0) {
 				System.out.println("  [Facade] ERROR: Product out of stock");
+				logResult(orderId, SagaLog.COMPENSATED, null);
 				return null;
 			}
-
-			if (!inventory.reserveProduct(productId, quantity)) {
-				System.out.println("  [Facade] ERROR: Cannot reserve product");
-				return null;
-			}
+			logResult(orderId, SagaLog.RESERVED, String.valueOf(reservationId));
 
 			double amount = quantity * 29.99;
-			if (!payment.validatePaymentInfo(cardNumber, cvv, amount)) {
+			t = System.nanoTime();
+			boolean valid = payment.validatePaymentInfo(cardNumber, cvv, amount);
+			metrics.record(OrderMetrics.Stage.VALIDATE, t);
+			if (!valid) {
 				System.out.println("  [Facade] ERROR: Invalid payment info");
-				inventory.releaseProduct(productId, quantity);
+				compensate(orderId, productId, quantity, reservationId, false, null, null);
 				return null;
 			}
 
+			checkDeadline(deadline, SagaLog.CHARGE);
+			logIntent(orderId, SagaLog.CHARGE, null);
+			t = System.nanoTime();
 			transactionId = payment.chargePayment(cardNumber, amount);
+			metrics.record(OrderMetrics.Stage.CHARGE, t);
 			if (transactionId == null) {
 				System.out.println("  [Facade] ERROR: Payment failed");
-				inventory.releaseProduct(productId, quantity);
+				compensate(orderId, productId, quantity, reservationId, false, null, null);
+				return null;
+			}
+			logResult(orderId, SagaLog.CHARGED, transactionId);
+
+			confirmed = inventory.confirmReservation(reservationId);
+			if (!confirmed) {
+				System.out.println("  [Facade] ERROR: Reservation expired");
+				compensate(orderId, productId, quantity, -1, false, transactionId, null);
 				return null;
 			}
+			logResult(orderId, SagaLog.CONFIRMED, null);
 
+			checkDeadline(deadline, SagaLog.SHIP);
+			logIntent(orderId, SagaLog.SHIP, null);
+			t = System.nanoTime();
 			double shippingCost = shipping.calculateShippingCost(address, quantity * 0.5);
 			trackingNumber = shipping.createShipment(address, productId);
+			metrics.record(OrderMetrics.Stage.SHIP, t);
+			logResult(orderId, SagaLog.SHIPPED, trackingNumber);
+			// COMPLETED phải bền vững trước khi báo khách: sau đó đơn không bao giờ bị bù trừ khi khôi phục
+			if (sagaLog != null) {
+				sagaLog.logCompleted(orderId);
+			}
+			orders.put(orderId, productId, quantity, transactionId, trackingNumber);
 
 			String orderDetails = "Order ID: " + orderId + ", Product: " + productId +
 			                     ", Quantity: " + quantity + ", Total: $" + (amount + shippingCost);
-			notification.sendEmailConfirmation(email, orderDetails);
-			notification.sendSMSNotification(phone, "Your order " + orderId + " is confirmed!");
+			t = System.nanoTime();
+			try {
+				notifyCustomer(orderId, orderDetails, email, phone);
+			} catch (RuntimeException e) {
+				// Đơn đã hoàn tất; lỗi thông báo không hoàn tác đơn hàng
+				System.out.println("  [Facade] WARNING: Notification failed for " + orderId + ": " + e.getMessage());
+			}
+			metrics.record(OrderMetrics.Stage.NOTIFY, t);
 
 			System.out.println("=== Order Facade: Order Completed Successfully ===");
 			System.out.println("  Order ID: " + orderId);
@@ -63,19 +174,385 @@ public class OrderFacade {
 
 		} catch (Exception e) {
 			System.out.println("  [Facade] ERROR: " + e.getMessage());
-			if (transactionId != null) {
+			compensate(orderId, productId, quantity, reservationId, confirmed, transactionId, trackingNumber);
+			return null;
+		} finally {
+			long endNanos = metrics.record(OrderMetrics.Stage.TOTAL, startNanos);
+			if (admission != null) {
+				admission.release(endNanos - startNanos);
+			}
+		}
+	}
+
+	// Hết hạn thì dừng trước bước tốn kém kế tiếp; khối catch của placeOrder sẽ bù trừ
+	private static void checkDeadline(long deadline, String step) {
+		if (deadline != 0 && System.nanoTime() - deadline > 0) {
+			throw new IllegalStateException("Deadline exceeded before " + step);
+		}
+	}
+
+	/**
+	 * Độ trễ từng bước của placeOrder (p50/p99/p999 qua snapshot())
+	 */
+	public OrderMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Bù trừ một đơn; mỗi bước được ghi ý định (fsync) trước khi chạy và ghi kết quả sau khi xong,
+	 * để khôi phục sau crash không chạy lại bước đã xong.
+	 */
+	private void compensate(String orderId, String productId, int quantity, long reservationId, boolean confirmed,
+	                        String transactionId, String trackingNumber) {
+		if (transactionId != null) {
+			logIntent(orderId, SagaLog.REFUND, transactionId);
+			payment.refundPayment(transactionId);
+			logResult(orderId, SagaLog.REFUNDED, transactionId);
+		}
+		if (trackingNumber != null) {
+			logIntent(orderId, SagaLog.CANCEL_SHIPMENT, trackingNumber);
+			shipping.cancelShipment(trackingNumber);
+			logResult(orderId, SagaLog.SHIPMENT_CANCELLED, trackingNumber);
+		}
+		if (confirmed) {
+			logIntent(orderId, SagaLog.RELEASE, String.valueOf(quantity));
+			inventory.releaseProduct(productId, quantity);
+			logResult(orderId, SagaLog.RELEASED, null);
+		} else if (reservationId >= 0) {
+			logIntent(orderId, SagaLog.CANCEL_RESERVATION, String.valueOf(reservationId));
+			inventory.cancelReservation(reservationId);
+			logResult(orderId, SagaLog.RESERVATION_CANCELLED, null);
+		}
+		logResult(orderId, SagaLog.COMPENSATED, null);
+	}
+
+	/**
+	 * Khôi phục khi khởi động: bù trừ mọi saga chưa kết thúc trong nhật ký
+	 * (hoàn tiền, hủy vận đơn, trả hàng), bỏ qua các bước bù trừ đã ghi kết quả.
+	 * Giữ chỗ chưa xác nhận mà không còn trong kho sẽ tự hết hạn.
+	 *
+	 * Không bù trừ tự động mà chuyển sang đối soát (ghi RECONCILE):
+	 * - saga đã có vận đơn (SHIPPED) mà chưa bắt đầu bù trừ - hàng có thể đã được giao
+	 * - saga có bản ghi hỏng
+	 * Saga dừng giữa một ý định (CHARGE, SHIP) vẫn được bù trừ và đánh dấu cần đối soát;
+	 * bước bù trừ đang dở thì không chạy lại mà để đối soát.
+	 *
+	 * @return số saga đã bù trừ
+	 */
+	public int recoverPendingOrders() throws IOException {
+		if (sagaLog == null) {
+			return 0;
+		}
+		List<OrderSaga> unfinished = sagaLog.loadUnfinished();
+		System.out.println("=== Order Facade: Recovering " + unfinished.size() + " Unfinished Orders ===");
+		int compensated = 0;
+		for (OrderSaga saga : unfinished) {
+			if (saga.isMalformed() || saga.isShipped()) {
+				String reason = saga.isMalformed() ? "MALFORMED" : "SHIPPED";
+				System.out.println("  [Recovery] WARNING: " + saga + " needs reconciliation (" + reason + ")");
+				logResult(saga.getOrderId(), SagaLog.RECONCILE, reason);
+				continue;
+			}
+			System.out.println("  [Recovery] Compensating " + saga);
+			String pending = saga.getLastStep();
+			if (saga.isInDoubt()) {
+				System.out.println("  [Recovery] WARNING: step " + pending + " of " + saga.getOrderId()
+						+ " may have run without a recorded result - reconcile manually");
+			}
+			// Bước bù trừ đang dở có thể đã chạy: không chạy lại
+			compensate(saga.getOrderId(), saga.getProductId(), saga.getQuantity(),
+					SagaLog.CANCEL_RESERVATION.equals(pending) ? -1 : saga.getReservationId(),
+					saga.isConfirmed() && !SagaLog.RELEASE.equals(pending),
+					SagaLog.REFUND.equals(pending) ? null : saga.getTransactionId(),
+					SagaLog.CANCEL_SHIPMENT.equals(pending) ? null : saga.getTrackingNumber());
+			compensated++;
+		}
+		return compensated;
+	}
+
+	private void notifyCustomer(String orderId, String orderDetails, String email, String phone) {
+		String message = "Your order " + orderId + " is confirmed!";
+		if (outbox != null) {
+			outbox.enqueueEmail(email, orderDetails);
+			outbox.enqueueSMS(phone, message);
+		} else {
+			notification.sendEmailConfirmation(email, orderDetails);
+			notification.sendSMSNotification(phone, message);
+		}
+	}
+
+	private void logIntent(String orderId, String step, String argument) {
+		if (sagaLog != null) {
+			sagaLog.logIntent(orderId, step, argument);
+		}
+	}
+
+	private void logResult(String orderId, String step, String argument) {
+		if (sagaLog != null) {
+			sagaLog.logResult(orderId, step, argument);
+		}
+	}
+
+	/**
+	 * Phiên bản bất đồng bộ của placeOrder: giữ chỗ hàng, kiểm tra thanh toán và tính phí vận chuyển
+	 * chạy song song; các bước phụ thuộc (trừ tiền, tạo vận đơn, thông báo) chạy khi đủ dữ liệu.
+	 * Khi lỗi, hoàn tiền / hủy vận đơn / trả hàng giống placeOrder.
+	 *
+	 * @return future hoàn thành với orderId, hoặc null nếu đơn hàng thất bại
+	 */
+	public CompletableFuture<String> placeOrderAsync(String customerId, String productId, int quantity,
+	                                                 String cardNumber, String cvv, String address,
+	                                                 String email, String phone) {
+
+		System.out.println("=== Order Facade: Processing Order (async) ===");
+
+		String orderId = IdGenerator.getDefault().nextId("ORD");
+		double amount = quantity * 29.99;
+		AsyncOrderState state = new AsyncOrderState();
+
+		CompletableFuture<Boolean> stockReserved = CompletableFuture.supplyAsync(() -> {
+			state.reservationId = inventory.tryReserve(productId, quantity);
+			if (state.reservationId < 0) {
+				System.out.println("  [Facade] ERROR: Product out of stock");
+				return false;
+			}
+			return true;
+		}, asyncExecutor);
+		CompletableFuture<Boolean> paymentValid = CompletableFuture.supplyAsync(
+				() -> payment.validatePaymentInfo(cardNumber, cvv, amount), asyncExecutor);
+		CompletableFuture<Double> shippingCost = CompletableFuture.supplyAsync(
+				() -> shipping.calculateShippingCost(address, quantity * 0.5), asyncExecutor);
+
+		return stockReserved
+				.thenCombine(paymentValid, (reserved, valid) -> {
+					if (reserved && !valid) {
+						System.out.println("  [Facade] ERROR: Invalid payment info");
+						inventory.cancelReservation(state.reservationId);
+					}
+					return reserved && valid;
+				})
+				.thenApplyAsync(ready -> {
+					if (!ready) {
+						return false;
+					}
+					state.transactionId = payment.chargePayment(cardNumber, amount);
+					if (state.transactionId == null) {
+						System.out.println("  [Facade] ERROR: Payment failed");
+						inventory.cancelReservation(state.reservationId);
+						return false;
+					}
+					state.confirmed = inventory.confirmReservation(state.reservationId);
+					if (!state.confirmed) {
+						System.out.println("  [Facade] ERROR: Reservation expired");
+						payment.refundPayment(state.transactionId);
+						state.transactionId = null;
+						return false;
+					}
+					return true;
+				}, asyncExecutor)
+				.thenCompose(charged -> {
+					if (!charged) {
+						return CompletableFuture.completedFuture((String) null);
+					}
+					return shippingCost.thenComposeAsync(cost -> {
+						state.trackingNumber = shipping.createShipment(address, productId);
+
+						String orderDetails = "Order ID: " + orderId + ", Product: " + productId +
+						                     ", Quantity: " + quantity + ", Total: $" + (amount + cost);
+						CompletableFuture<Void> notified;
+						if (outbox != null) {
+							notifyCustomer(orderId, orderDetails, email, phone);
+							notified = CompletableFuture.completedFuture(null);
+						} else {
+							notified = CompletableFuture.allOf(
+									CompletableFuture.runAsync(
+											() -> notification.sendEmailConfirmation(email, orderDetails), asyncExecutor),
+									CompletableFuture.runAsync(
+											() -> notification.sendSMSNotification(phone, "Your order " + orderId + " is confirmed!"),
+											asyncExecutor));
+						}
+						return notified.thenApply(done -> {
+							orders.put(orderId, productId, quantity, state.transactionId, state.trackingNumber);
+							System.out.println("=== Order Facade: Order Completed Successfully ===");
+							System.out.println("  Order ID: " + orderId);
+							System.out.println("  Tracking: " + state.trackingNumber);
+							return orderId;
+						});
+					}, asyncExecutor);
+				})
+				.exceptionally(e -> {
+					Throwable cause = e.getCause() != null ? e.getCause() : e;
+					System.out.println("  [Facade] ERROR: " + cause.getMessage());
+					if (state.transactionId != null) {
+						payment.refundPayment(state.transactionId);
+					}
+					if (state.trackingNumber != null) {
+						shipping.cancelShipment(state.trackingNumber);
+					}
+					if (state.confirmed) {
+						inventory.releaseProduct(productId, quantity);
+					} else if (state.reservationId >= 0) {
+						inventory.cancelReservation(state.reservationId);
+					}
+					return null;
+				});
+	}
+
+	/**
+	 * Đặt nhiều đơn trong một lần (flash sale): gom đơn theo productId để mỗi SKU chỉ gọi
+	 * reserveProduct (kiểm tra và trừ kho nguyên tử) một lần, trừ tiền theo lô và dùng chung một báo giá vận chuyển
+	 * cho mỗi khu vực và mức cân nặng. Nếu giữ chỗ hoặc trừ tiền lỗi giữa chừng, mọi phần đã giữ chỗ được trả lại.
+	 * Trả về kết quả cho từng đơn theo đúng thứ tự đầu vào.
+	 */
+	public List<OrderResult> placeOrders(List<OrderRequest> requests) {
+		System.out.println("=== Order Facade: Processing Batch of " + requests.size() + " Orders ===");
+
+		OrderResult[] results = new OrderResult[requests.size()];
+
+		// 1. Kiểm tra thông tin thanh toán, gom các đơn hợp lệ theo SKU
+		Map<String, List<Integer>> ordersBySku = new LinkedHashMap<>();
+		for (int i = 0; i < requests.size(); i++) {
+			OrderRequest request = requests.get(i);
+			double amount = request.getQuantity() * 29.99;
+			if (!payment.validatePaymentInfo(request.getCardNumber(), request.getCvv(), amount)) {
+				results[i] = OrderResult.failure(request, "Invalid payment info");
+				continue;
+			}
+			ordersBySku.computeIfAbsent(request.getProductId(), sku -> new ArrayList<>()).add(i);
+		}
+
+		List<Integer> reserved = new ArrayList<>();
+		double[] amounts = new double[0];
+		String[] transactionIds;
+		try {
+			// 2. Mỗi SKU một lần giữ chỗ; nếu không đủ hàng cho cả nhóm thì giữ chỗ lần lượt từng đơn
+			for (Map.Entry<String, List<Integer>> group : ordersBySku.entrySet()) {
+				String productId = group.getKey();
+				int totalQuantity = 0;
+				for (int index : group.getValue()) {
+					totalQuantity += requests.get(index).getQuantity();
+				}
+				if (inventory.reserveProduct(productId, totalQuantity)) {
+					reserved.addAll(group.getValue());
+					continue;
+				}
+				for (int index : group.getValue()) {
+					int quantity = requests.get(index).getQuantity();
+					if (inventory.reserveProduct(productId, quantity)) {
+						reserved.add(index);
+					} else {
+						results[index] = OrderResult.failure(requests.get(index), "Product out of stock");
+					}
+				}
+			}
+			reserved.sort(null);
+
+			// 3. Trừ tiền theo lô
+			String[] cardNumbers = new String[reserved.size()];
+			amounts = new double[reserved.size()];
+			for (int i = 0; i < reserved.size(); i++) {
+				OrderRequest request = requests.get(reserved.get(i));
+				cardNumbers[i] = request.getCardNumber();
+				amounts[i] = request.getQuantity() * 29.99;
+			}
+			transactionIds = reserved.isEmpty() ? new String[0] : payment.chargePayments(cardNumbers, amounts);
+		} catch (Exception e) {
+			// Lỗi giữa chừng: trả lại mọi phần đã giữ chỗ, các đơn chưa có kết quả đều thất bại
+			System.out.println("  [Facade] ERROR: " + e.getMessage());
+			for (int index : reserved) {
+				inventory.releaseProduct(requests.get(index).getProductId(), requests.get(index).getQuantity());
+			}
+			for (int i = 0; i < results.length; i++) {
+				if (results[i] == null) {
+					results[i] = OrderResult.failure(requests.get(i), e.getMessage());
+				}
+			}
+			System.out.println("=== Order Facade: Batch Failed ===");
+			return Arrays.asList(results);
+		}
+
+		// 4. Vận chuyển và thông báo; mỗi khu vực và mức cân nặng chỉ báo giá một lần
+		Map<String, Double> quotes = new HashMap<>();
+		for (int i = 0; i < reserved.size(); i++) {
+			int index = reserved.get(i);
+			OrderRequest request = requests.get(index);
+			String transactionId = transactionIds[i];
+			if (transactionId == null) {
+				inventory.releaseProduct(request.getProductId(), request.getQuantity());
+				results[index] = OrderResult.failure(request, "Payment failed");
+				continue;
+			}
+			String trackingNumber = null;
+			try {
+				double weight = request.getQuantity() * 0.5;
+				double shippingCost = quotes.computeIfAbsent(ShippingService.regionOf(request.getAddress()) + "|" + weight,
+						key -> shipping.calculateShippingCost(request.getAddress(), weight));
+				trackingNumber = shipping.createShipment(request.getAddress(), request.getProductId());
+
+				String orderId = IdGenerator.getDefault().nextId("ORD");
+				String orderDetails = "Order ID: " + orderId + ", Product: " + request.getProductId() +
+				                     ", Quantity: " + request.getQuantity() + ", Total: $" + (amounts[i] + shippingCost);
+				notifyCustomer(orderId, orderDetails, request.getEmail(), request.getPhone());
+				orders.put(orderId, request.getProductId(), request.getQuantity(), transactionId, trackingNumber);
+				results[index] = OrderResult.success(request, orderId);
+			} catch (Exception e) {
+				System.out.println("  [Facade] ERROR: " + e.getMessage());
 				payment.refundPayment(transactionId);
+				if (trackingNumber != null) {
+					shipping.cancelShipment(trackingNumber);
+				}
+				inventory.releaseProduct(request.getProductId(), request.getQuantity());
+				results[index] = OrderResult.failure(request, e.getMessage());
 			}
-			if (trackingNumber != null) {
-				shipping.cancelShipment(trackingNumber);
+		}
+
+		int succeeded = 0;
+		for (OrderResult result : results) {
+			if (result.isSuccess()) {
+				succeeded++;
 			}
-			inventory.releaseProduct(productId, quantity);
-			return null;
 		}
+		System.out.println("=== Order Facade: Batch Completed (" + succeeded + "/" + results.length + " succeeded) ===");
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Hủy đơn chỉ bằng orderId: thông tin sản phẩm, giao dịch và vận đơn lấy từ OrderStore.
+	 *
+	 * @return false nếu không tìm thấy đơn hoặc đơn đã bị hủy
+	 */
+	public boolean cancelOrder(String orderId) {
+		OrderRecord order = orders.markCancelled(orderId);
+		if (order == null) {
+			System.out.println("  [Facade] ERROR: Unknown or already cancelled order " + orderId);
+			return false;
+		}
+		return cancelOrder(orderId, order.getProductId(), order.getQuantity(),
+				order.getTransactionId(), order.getTrackingNumber());
+	}
+
+	/**
+	 * Bỏ đơn khỏi OrderStore khi không còn cần tra cứu (đã giao xong và lưu trữ ở hệ thống khác);
+	 * sau đó cancelOrder(orderId) và getOrder(orderId) không còn tìm thấy đơn.
+	 *
+	 * @return false nếu không có đơn này
+	 */
+	public boolean archiveOrder(String orderId) {
+		return orders.remove(orderId);
+	}
+
+	/**
+	 * Thông tin đơn đã đặt, hoặc null nếu không có
+	 */
+	public OrderRecord getOrder(String orderId) {
+		return orders.get(orderId);
 	}
 
 	public boolean cancelOrder(String orderId, String productId, int quantity, String transactionId, String trackingNumber) {
 		System.out.println("=== Order Facade: Cancelling Order " + orderId + " ===");
+		if (orderId != null) {
+			orders.markCancelled(orderId);
+		}
 
 		payment.refundPayment(transactionId);
 		shipping.cancelShipment(trackingNumber);
@@ -84,4 +561,14 @@ public class OrderFacade {
 		System.out.println("=== Order Facade: Order Cancelled Successfully ===");
 		return true;
 	}
+
+	/**
+	 * Kết quả trung gian của một đơn async, dùng để bù trừ (compensation) khi lỗi
+	 */
+	private static class AsyncOrderState {
+		volatile long reservationId = -1;
+		volatile boolean confirmed;
+		volatile String transactionId;
+		volatile String trackingNumber;
+	}
 }
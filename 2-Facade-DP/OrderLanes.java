@@ -0,0 +1,364 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tồn kho chia theo làn (lane), mỗi làn một luồng ghi duy nhất:
+ * - productId được băm vào một trong N làn; tồn kho và giữ chỗ của SKU chỉ do làn đó đọc/ghi nên không cần lock
+ * - Là một InventorySystem: dùng với OrderFacade để đơn hàng đi qua đúng luồng của facade
+ *   (nhật ký saga, OrderStore, outbox, metrics, admission), chỉ bước kho chạy trên làn
+ * - Giữ chỗ nhiều SKU (reserveAll): gửi yêu cầu tới từng làn liên quan, nếu một làn từ chối
+ *   (hoặc task của làn lỗi) thì trả lại phần các làn khác đã giữ
+ * - Giữ chỗ quá hạn được trả lại kho khi làn xử lý yêu cầu kế tiếp
+ */
+public class OrderLanes extends InventorySystem implements AutoCloseable {
+
+	private static final long DEFAULT_RESERVATION_TTL_MILLIS = 15 * 60 * 1000L;
+	private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+
+	private final Lane[] lanes;
+	private final long reservationTtlNanos;
+
+	// Số giữ chỗ chưa xác nhận/hủy và số reserveAll đang chạy; close() chờ về 0
+	private final Object inFlightLock = new Object();
+	private int inFlight;
+	private volatile boolean closing;
+
+	public OrderLanes(int laneCount) {
+		this(laneCount, DEFAULT_RESERVATION_TTL_MILLIS);
+	}
+
+	public OrderLanes(int laneCount, long reservationTtlMillis) {
+		super(false);
+		this.lanes = new Lane[laneCount];
+		for (int i = 0; i < laneCount; i++) {
+			lanes[i] = new Lane(i);
+		}
+		this.reservationTtlNanos = TimeUnit.MILLISECONDS.toNanos(reservationTtlMillis);
+	}
+
+	@Override
+	public void addStock(String productId, int quantity) {
+		System.out.println("  [Lanes] Adding " + quantity + " units of product: " + productId);
+		run(laneOf(productId), lane -> {
+			lane.add(productId, quantity);
+			return null;
+		});
+	}
+
+	@Override
+	public void addStock(String productId, int quantity, int stripes) {
+		// Mỗi SKU chỉ có một luồng ghi nên không cần chia ô
+		addStock(productId, quantity);
+	}
+
+	@Override
+	public boolean checkStock(String productId, int quantity) {
+		System.out.println("  [Lanes] Checking stock for product: " + productId);
+		return getAvailableStock(productId) >= quantity;
+	}
+
+	@Override
+	public boolean reserveProduct(String productId, int quantity) {
+		System.out.println("  [Lanes] Reserving " + quantity + " units of product: " + productId);
+		checkOpen();
+		return run(laneOf(productId), lane -> lane.take(productId, quantity));
+	}
+
+	@Override
+	public void releaseProduct(String productId, int quantity) {
+		System.out.println("  [Lanes] Releasing " + quantity + " units of product: " + productId);
+		run(laneOf(productId), lane -> {
+			lane.add(productId, quantity);
+			return null;
+		});
+	}
+
+	@Override
+	public long tryReserve(String productId, int quantity) {
+		System.out.println("  [Lanes] Reserving " + quantity + " units of product: " + productId);
+		checkOpen();
+		return run(laneOf(productId), lane -> lane.reserve(productId, quantity));
+	}
+
+	@Override
+	public boolean confirmReservation(long reservationId) {
+		System.out.println("  [Lanes] Confirming reservation: " + reservationId);
+		return reservationId >= 0 && run(laneOfReservation(reservationId), lane -> lane.confirm(reservationId));
+	}
+
+	@Override
+	public boolean cancelReservation(long reservationId) {
+		System.out.println("  [Lanes] Cancelling reservation: " + reservationId);
+		return reservationId >= 0 && run(laneOfReservation(reservationId), lane -> lane.cancel(reservationId));
+	}
+
+	@Override
+	public long getAvailableStock(String productId) {
+		return run(laneOf(productId), lane -> lane.available(productId));
+	}
+
+	/**
+	 * Giữ hàng cho đơn nhiều SKU: mỗi làn tự quyết định cho SKU của mình (chạy song song),
+	 * thiếu hàng ở bất kỳ làn nào thì trả lại phần các làn khác đã giữ.
+	 *
+	 * @return true nếu giữ được hàng cho mọi dòng
+	 */
+	public boolean reserveAll(List<OrderRequest> lines) {
+		checkOpen();
+		enter();
+		try {
+			List<CompletableFuture<Boolean>> reservations = new ArrayList<>(lines.size());
+			for (OrderRequest line : lines) {
+				CompletableFuture<Boolean> reservation;
+				try {
+					reservation = laneOf(line.getProductId()).submit(
+							lane -> lane.take(line.getProductId(), line.getQuantity()));
+				} catch (RuntimeException e) {
+					reservation = CompletableFuture.failedFuture(e);
+				}
+				reservations.add(reservation);
+			}
+
+			// Chờ mọi làn trả lời, kể cả khi task của một làn lỗi, để biết phần nào cần trả lại
+			List<OrderRequest> reserved = new ArrayList<>(lines.size());
+			String error = null;
+			for (int i = 0; i < lines.size(); i++) {
+				try {
+					if (reservations.get(i).join()) {
+						reserved.add(lines.get(i));
+					} else if (error == null) {
+						error = "Product out of stock: " + lines.get(i).getProductId();
+					}
+				} catch (CompletionException e) {
+					if (error == null) {
+						error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+					}
+				}
+			}
+			if (reserved.size() < lines.size()) {
+				System.out.println("  [Lanes] ERROR: " + error + ", reservation rolled back");
+				releaseAll(reserved);
+				return false;
+			}
+			return true;
+		} finally {
+			exit();
+		}
+	}
+
+	// Trả hàng về các làn sở hữu SKU và chờ xong; làn đã đóng thì báo lỗi số hàng bị mất để đối soát
+	private void releaseAll(List<OrderRequest> lines) {
+		List<CompletableFuture<Void>> releases = new ArrayList<>(lines.size());
+		for (OrderRequest line : lines) {
+			try {
+				releases.add(laneOf(line.getProductId()).submit(lane -> {
+					lane.add(line.getProductId(), line.getQuantity());
+					return null;
+				}));
+			} catch (IllegalStateException e) {
+				System.out.println("  [Lanes] ERROR: Could not release " + line.getQuantity() + " units of "
+						+ line.getProductId() + " - " + e.getMessage());
+			}
+		}
+		CompletableFuture.allOf(releases.toArray(new CompletableFuture<?>[0])).join();
+	}
+
+	private Lane laneOf(String productId) {
+		return lanes[Math.floorMod(productId.hashCode(), lanes.length)];
+	}
+
+	// Mã giữ chỗ mang chỉ số làn: id = sequence * laneCount + laneIndex
+	private Lane laneOfReservation(long reservationId) {
+		return lanes[(int) (reservationId % lanes.length)];
+	}
+
+	private static <T> T run(Lane lane, LaneTask<T> task) {
+		try {
+			return lane.submit(task).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private void checkOpen() {
+		if (closing) {
+			throw new IllegalStateException("Order lanes are closing");
+		}
+	}
+
+	private void enter() {
+		synchronized (inFlightLock) {
+			inFlight++;
+		}
+	}
+
+	private void exit() {
+		synchronized (inFlightLock) {
+			if (--inFlight == 0) {
+				inFlightLock.notifyAll();
+			}
+		}
+	}
+
+	public int getLaneCount() {
+		return lanes.length;
+	}
+
+	/**
+	 * Không nhận giữ chỗ mới, chờ các đơn đang giữ chỗ xác nhận hoặc hủy (tối đa CLOSE_TIMEOUT_MILLIS)
+	 * rồi cho các làn chạy nốt hàng đợi và dừng. Trả hàng sau khi đóng sẽ ném IllegalStateException.
+	 */
+	@Override
+	public void close() {
+		closing = true;
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MILLIS);
+		try {
+			synchronized (inFlightLock) {
+				long remaining;
+				while (inFlight > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+					TimeUnit.NANOSECONDS.timedWait(inFlightLock, remaining);
+				}
+				if (inFlight > 0) {
+					System.out.println("  [Lanes] WARNING: Closing with " + inFlight + " open reservations");
+				}
+			}
+			for (Lane lane : lanes) {
+				lane.executor.shutdown();
+			}
+			for (Lane lane : lanes) {
+				long remaining = Math.max(0, deadline - System.nanoTime());
+				if (!lane.executor.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+					System.out.println("  [Lanes] WARNING: Lane did not drain before close timeout");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Một làn: một luồng duy nhất và phần tồn kho, giữ chỗ chỉ luồng đó truy cập
+	 */
+	private class Lane {
+
+		private final int index;
+		private final ExecutorService executor;
+		// Chỉ truy cập trên luồng của làn; int[1] để cập nhật tại chỗ không cần boxing
+		private final Map<String, int[]> stock = new HashMap<>();
+		// Theo thứ tự tạo = thứ tự hết hạn (cùng TTL)
+		private final LinkedHashMap<Long, Reservation> reservations = new LinkedHashMap<>();
+		private long nextSequence;
+
+		Lane(int index) {
+			this.index = index;
+			this.executor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "order-lane-" + index);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		<T> CompletableFuture<T> submit(LaneTask<T> task) {
+			try {
+				return CompletableFuture.supplyAsync(() -> task.run(this), executor);
+			} catch (RejectedExecutionException e) {
+				throw new IllegalStateException("Order lane " + index + " is closed", e);
+			}
+		}
+
+		void add(String productId, int quantity) {
+			stock.computeIfAbsent(productId, id -> new int[1])[0] += quantity;
+		}
+
+		boolean take(String productId, int quantity) {
+			if (quantity <= 0) {
+				throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+			}
+			expireReservations();
+			int[] available = stock.get(productId);
+			if (available == null || available[0] < quantity) {
+				return false;
+			}
+			available[0] -= quantity;
+			return true;
+		}
+
+		long reserve(String productId, int quantity) {
+			if (!take(productId, quantity)) {
+				return -1;
+			}
+			long reservationId = nextSequence++ * lanes.length + index;
+			reservations.put(reservationId, new Reservation(productId, quantity, System.nanoTime() + reservationTtlNanos));
+			enter();
+			return reservationId;
+		}
+
+		boolean confirm(long reservationId) {
+			expireReservations();
+			if (reservations.remove(reservationId) == null) {
+				return false;
+			}
+			exit();
+			return true;
+		}
+
+		boolean cancel(long reservationId) {
+			Reservation reservation = reservations.remove(reservationId);
+			if (reservation == null) {
+				return false;
+			}
+			add(reservation.productId, reservation.quantity);
+			exit();
+			return true;
+		}
+
+		int available(String productId) {
+			expireReservations();
+			int[] available = stock.get(productId);
+			return available == null ? 0 : available[0];
+		}
+
+		private void expireReservations() {
+			long now = System.nanoTime();
+			Iterator<Reservation> iterator = reservations.values().iterator();
+			while (iterator.hasNext()) {
+				Reservation reservation = iterator.next();
+				if (now - reservation.expiresAtNanos < 0) {
+					return;
+				}
+				iterator.remove();
+				add(reservation.productId, reservation.quantity);
+				exit();
+			}
+		}
+	}
+
+	private static class Reservation {
+		final String productId;
+		final int quantity;
+		final long expiresAtNanos;
+
+		Reservation(String productId, int quantity, long expiresAtNanos) {
+			this.productId = productId;
+			this.quantity = quantity;
+			this.expiresAtNanos = expiresAtNanos;
+		}
+	}
+
+	private interface LaneTask<T> {
+		T run(Lane lane);
+	}
+}
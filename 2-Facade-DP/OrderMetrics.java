@@ -0,0 +1,55 @@
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Độ trễ của từng bước trong placeOrder, mỗi bước một LatencyHistogram.
+ * Dùng: long t = System.nanoTime(); ...; t = metrics.record(Stage.CHARGE, t);
+ */
+public class OrderMetrics {
+
+	public enum Stage {
+		RESERVE,   // kiểm tra tồn kho + giữ chỗ (tryReserve)
+		VALIDATE,
+		CHARGE,
+		SHIP,      // tính phí + tạo vận đơn
+		NOTIFY,
+		TOTAL
+	}
+
+	private final LatencyHistogram[] histograms = new LatencyHistogram[Stage.values().length];
+
+	public OrderMetrics() {
+		for (int i = 0; i < histograms.length; i++) {
+			histograms[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * Ghi độ trễ từ startNanos đến hiện tại
+	 *
+	 * @return thời điểm hiện tại, dùng làm startNanos cho bước kế tiếp
+	 */
+	public long record(Stage stage, long startNanos) {
+		long now = System.nanoTime();
+		histograms[stage.ordinal()].record(now - startNanos);
+		return now;
+	}
+
+	public LatencySnapshot snapshot(Stage stage) {
+		return histograms[stage.ordinal()].snapshot();
+	}
+
+	public Map<Stage, LatencySnapshot> snapshot() {
+		Map<Stage, LatencySnapshot> result = new EnumMap<>(Stage.class);
+		for (Stage stage : Stage.values()) {
+			result.put(stage, snapshot(stage));
+		}
+		return result;
+	}
+
+	public void reset() {
+		for (LatencyHistogram histogram : histograms) {
+			histogram.reset();
+		}
+	}
+}
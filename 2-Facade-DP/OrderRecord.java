@@ -0,0 +1,52 @@
+/**
+ * Thông tin một đơn hàng đọc từ OrderStore (chỉ đọc)
+ */
+public class OrderRecord {
+
+	private final String orderId;
+	private final String productId;
+	private final int quantity;
+	private final String transactionId;
+	private final String trackingNumber;
+	private final boolean cancelled;
+
+	public OrderRecord(String orderId, String productId, int quantity,
+	                   String transactionId, String trackingNumber, boolean cancelled) {
+		this.orderId = orderId;
+		this.productId = productId;
+		this.quantity = quantity;
+		this.transactionId = transactionId;
+		this.trackingNumber = trackingNumber;
+		this.cancelled = cancelled;
+	}
+
+	public String getOrderId() {
+		return orderId;
+	}
+
+	public String getProductId() {
+		return productId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public String getTransactionId() {
+		return transactionId;
+	}
+
+	public String getTrackingNumber() {
+		return trackingNumber;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	@Override
+	public String toString() {
+		return "OrderRecord[" + orderId + ", " + productId + " x" + quantity + ", txn=" + transactionId
+				+ ", tracking=" + trackingNumber + (cancelled ? ", CANCELLED" : "") + "]";
+	}
+}
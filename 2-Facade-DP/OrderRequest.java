@@ -0,0 +1,56 @@
+public class OrderRequest {
+
+	private final String customerId;
+	private final String productId;
+	private final int quantity;
+	private final String cardNumber;
+	private final String cvv;
+	private final String address;
+	private final String email;
+	private final String phone;
+
+	public OrderRequest(String customerId, String productId, int quantity,
+	                    String cardNumber, String cvv, String address,
+	                    String email, String phone) {
+		this.customerId = customerId;
+		this.productId = productId;
+		this.quantity = quantity;
+		this.cardNumber = cardNumber;
+		this.cvv = cvv;
+		this.address = address;
+		this.email = email;
+		this.phone = phone;
+	}
+
+	public String getCustomerId() {
+		return customerId;
+	}
+
+	public String getProductId() {
+		return productId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public String getCardNumber() {
+		return cardNumber;
+	}
+
+	public String getCvv() {
+		return cvv;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public String getPhone() {
+		return phone;
+	}
+}
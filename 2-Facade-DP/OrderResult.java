@@ -0,0 +1,43 @@
+public class OrderResult {
+
+	private final OrderRequest request;
+	private final String orderId;
+	private final String error;
+
+	private OrderResult(OrderRequest request, String orderId, String error) {
+		this.request = request;
+		this.orderId = orderId;
+		this.error = error;
+	}
+
+	public static OrderResult success(OrderRequest request, String orderId) {
+		return new OrderResult(request, orderId, null);
+	}
+
+	public static OrderResult failure(OrderRequest request, String error) {
+		return new OrderResult(request, null, error);
+	}
+
+	public OrderRequest getRequest() {
+		return request;
+	}
+
+	public boolean isSuccess() {
+		return orderId != null;
+	}
+
+	public String getOrderId() {
+		return orderId;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		return isSuccess()
+				? "OrderResult[" + orderId + ", " + request.getProductId() + " x" + request.getQuantity() + "]"
+				: "OrderResult[FAILED: " + error + ", " + request.getProductId() + " x" + request.getQuantity() + "]";
+	}
+}
@@ -0,0 +1,140 @@
+/**
+ * Trạng thái của một đơn hàng được dựng lại từ SagaLog khi khôi phục:
+ * những bước đã thực hiện (cần bù trừ), những bước bù trừ đã xong, và bước đang dở (không rõ kết quả).
+ * Saga có bản ghi hỏng được đánh dấu malformed và chỉ được đối soát thủ công.
+ */
+public class OrderSaga {
+
+	private final String orderId;
+	private final String productId;
+	private final int quantity;
+	private long reservationId = -1;
+	private boolean confirmed;
+	private String transactionId;
+	private String trackingNumber;
+	private String pendingStep;
+	private boolean compensating;
+	private boolean malformed;
+
+	public OrderSaga(String orderId, String productId, int quantity) {
+		this.orderId = orderId;
+		this.productId = productId;
+		this.quantity = quantity;
+	}
+
+	/**
+	 * @throws NumberFormatException nếu tham số của bản ghi bị hỏng
+	 */
+	void apply(String step, String argument) {
+		switch (step) {
+			case SagaLog.RESERVED:
+				reservationId = Long.parseLong(argument);
+				break;
+			case SagaLog.CONFIRMED:
+				confirmed = true;
+				break;
+			case SagaLog.CHARGED:
+				transactionId = argument;
+				break;
+			case SagaLog.SHIPPED:
+				trackingNumber = argument;
+				break;
+			case SagaLog.REFUND:
+			case SagaLog.CANCEL_SHIPMENT:
+			case SagaLog.RELEASE:
+			case SagaLog.CANCEL_RESERVATION:
+				compensating = true;
+				break;
+			case SagaLog.REFUNDED:
+				transactionId = null;
+				break;
+			case SagaLog.SHIPMENT_CANCELLED:
+				trackingNumber = null;
+				break;
+			case SagaLog.RELEASED:
+				confirmed = false;
+				reservationId = -1;
+				break;
+			case SagaLog.RESERVATION_CANCELLED:
+				reservationId = -1;
+				break;
+			default:
+				break;
+		}
+		pendingStep = step;
+	}
+
+	void markMalformed() {
+		malformed = true;
+	}
+
+	public String getOrderId() {
+		return orderId;
+	}
+
+	public String getProductId() {
+		return productId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public long getReservationId() {
+		return reservationId;
+	}
+
+	public boolean isConfirmed() {
+		return confirmed;
+	}
+
+	public String getTransactionId() {
+		return transactionId;
+	}
+
+	public String getTrackingNumber() {
+		return trackingNumber;
+	}
+
+	/**
+	 * Bản ghi cuối cùng của saga; nếu là một ý định (CHARGE, SHIP) thì bước đó
+	 * có thể đã chạy mà chưa kịp ghi kết quả và cần đối soát thủ công.
+	 */
+	public String getLastStep() {
+		return pendingStep;
+	}
+
+	public boolean isInDoubt() {
+		return SagaLog.CHARGE.equals(pendingStep) || SagaLog.SHIP.equals(pendingStep) || isCompensationInDoubt();
+	}
+
+	/**
+	 * Bản ghi cuối là ý định của một bước bù trừ (REFUND, CANCEL-SHIPMENT, RELEASE, CANCEL-RESERVATION):
+	 * bước đó có thể đã chạy, không được chạy lại tự động
+	 */
+	public boolean isCompensationInDoubt() {
+		return SagaLog.REFUND.equals(pendingStep) || SagaLog.CANCEL_SHIPMENT.equals(pendingStep)
+				|| SagaLog.RELEASE.equals(pendingStep) || SagaLog.CANCEL_RESERVATION.equals(pendingStep);
+	}
+
+	/**
+	 * Đã có vận đơn và chưa bắt đầu bù trừ: đơn có thể đã được giao, cần đối soát thay vì hoàn tiền tự động
+	 */
+	public boolean isShipped() {
+		return trackingNumber != null && !compensating;
+	}
+
+	public boolean isCompensating() {
+		return compensating;
+	}
+
+	public boolean isMalformed() {
+		return malformed;
+	}
+
+	@Override
+	public String toString() {
+		return "OrderSaga[" + orderId + ", " + productId + " x" + quantity + ", last=" + pendingStep
+				+ (malformed ? ", malformed" : "") + "]";
+	}
+}
@@ -0,0 +1,266 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kho trạng thái đơn hàng trong bộ nhớ, tra cứu O(1) theo phần số của orderId.
+ *
+ * Không giữ object cho từng đơn: mỗi đơn là một slot trong các mảng nguyên thủy
+ * (mã sản phẩm, số lượng, phần số của transactionId / trackingNumber, trạng thái),
+ * orderId -> slot là bảng băm địa chỉ mở (long[] + int[]): ~49 byte mỗi đơn (24 cho bảng băm, 25 cho các cột),
+ * tối đa gấp đôi ngay sau khi tăng kích thước.
+ * productId được mã hóa qua bảng từ điển vì số SKU nhỏ hơn rất nhiều so với số đơn.
+ *
+ * ID không đúng dạng tiền tố + số (vd. từ hệ thống ngoài) được giữ nguyên chuỗi trong bảng phụ.
+ *
+ * Đơn được giữ cho tới khi remove() (vd. sau khi giao xong và đã lưu trữ ở nơi khác); slot đã xóa được
+ * dùng lại cho đơn mới, nên bộ nhớ tỉ lệ với số đơn đang giữ chứ không phải tổng số đơn đã đặt.
+ */
+public class OrderStore {
+
+	private static final String ORDER_PREFIX = "ORD";
+	private static final String TRANSACTION_PREFIX = "TXN";
+	private static final String TRACKING_PREFIX = "SHIP";
+
+	private static final long NO_ID = -1;
+	private static final long OVERFLOW_ID = -2;
+
+	private static final byte PLACED = 1;
+	private static final byte CANCELLED = 2;
+
+	// orderId (phần số, luôn > 0) -> slot; 0 = ô trống
+	private long[] keys;
+	private int[] slots;
+	private int mask;
+	// Băm Fibonacci lấy các bit cao: dịch 64 - log2(kích thước bảng)
+	private int shift;
+
+	private int[] productCodes;
+	private int[] quantities;
+	private long[] transactionNumbers;
+	private long[] trackingNumbers;
+	private byte[] statuses;
+	private int size;
+	// Slot đã cấp cao nhất (slot < nextSlot) và các slot đã xóa chờ dùng lại
+	private int nextSlot;
+	private int[] freeSlots = new int[16];
+	private int freeCount;
+
+	private final Map<String, Integer> productCodeByName = new HashMap<>();
+	private final List<String> productNames = new ArrayList<>();
+	private final Map<Integer, String> overflowTransactions = new HashMap<>();
+	private final Map<Integer, String> overflowTracking = new HashMap<>();
+
+	public OrderStore(int initialCapacity) {
+		int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity) - 1) << 1);
+		keys = new long[capacity * 2];
+		slots = new int[capacity * 2];
+		mask = capacity * 2 - 1;
+		shift = 64 - Integer.numberOfTrailingZeros(capacity * 2);
+		productCodes = new int[capacity];
+		quantities = new int[capacity];
+		transactionNumbers = new long[capacity];
+		trackingNumbers = new long[capacity];
+		statuses = new byte[capacity];
+	}
+
+	public synchronized void put(String orderId, String productId, int quantity,
+	                             String transactionId, String trackingNumber) {
+		long key = numericPart(orderId, ORDER_PREFIX);
+		if (key <= 0) {
+			throw new IllegalArgumentException("Unsupported order id: " + orderId);
+		}
+		int index = findIndex(key);
+		int slot;
+		if (keys[index] == key) {
+			slot = slots[index];
+		} else {
+			if (freeCount > 0) {
+				slot = freeSlots[--freeCount];
+			} else {
+				if (nextSlot == statuses.length) {
+					grow();
+					index = findIndex(key);
+				}
+				slot = nextSlot++;
+			}
+			size++;
+			keys[index] = key;
+			slots[index] = slot;
+		}
+		productCodes[slot] = productCodeByName.computeIfAbsent(productId, name -> {
+			productNames.add(name);
+			return productNames.size() - 1;
+		});
+		quantities[slot] = quantity;
+		transactionNumbers[slot] = encode(transactionId, TRANSACTION_PREFIX, slot, overflowTransactions);
+		trackingNumbers[slot] = encode(trackingNumber, TRACKING_PREFIX, slot, overflowTracking);
+		statuses[slot] = PLACED;
+	}
+
+	/**
+	 * @return thông tin đơn hàng, hoặc null nếu không có
+	 */
+	public synchronized OrderRecord get(String orderId) {
+		int slot = slotOf(orderId);
+		if (slot < 0) {
+			return null;
+		}
+		return new OrderRecord(orderId, productNames.get(productCodes[slot]), quantities[slot],
+				decode(transactionNumbers[slot], TRANSACTION_PREFIX, slot, overflowTransactions),
+				decode(trackingNumbers[slot], TRACKING_PREFIX, slot, overflowTracking),
+				statuses[slot] == CANCELLED);
+	}
+
+	/**
+	 * Đánh dấu đơn đã hủy (nguyên tử)
+	 *
+	 * @return thông tin đơn trước khi hủy, hoặc null nếu không có hoặc đã hủy trước đó
+	 */
+	public synchronized OrderRecord markCancelled(String orderId) {
+		OrderRecord record = get(orderId);
+		if (record == null || record.isCancelled()) {
+			return null;
+		}
+		statuses[slotOf(orderId)] = CANCELLED;
+		return record;
+	}
+
+	/**
+	 * Xóa hẳn đơn khỏi kho (xóa dịch lùi, không để lại tombstone)
+	 *
+	 * @return true nếu đơn có trong kho
+	 */
+	public synchronized boolean remove(String orderId) {
+		long key = numericPart(orderId, ORDER_PREFIX);
+		if (key <= 0) {
+			return false;
+		}
+		int hole = findIndex(key);
+		if (keys[hole] != key) {
+			return false;
+		}
+		int slot = slots[hole];
+		overflowTransactions.remove(slot);
+		overflowTracking.remove(slot);
+		statuses[slot] = 0;
+		if (freeCount == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+		}
+		freeSlots[freeCount++] = slot;
+		size--;
+
+		// Dời các key phía sau về lỗ trống nếu ô gốc của chúng không nằm giữa lỗ trống và vị trí hiện tại
+		keys[hole] = 0;
+		for (int index = (hole + 1) & mask; keys[index] != 0; index = (index + 1) & mask) {
+			int home = homeIndex(keys[index]);
+			if (((index - home) & mask) >= ((index - hole) & mask)) {
+				keys[hole] = keys[index];
+				slots[hole] = slots[index];
+				keys[index] = 0;
+				hole = index;
+			}
+		}
+		return true;
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	private int slotOf(String orderId) {
+		long key = numericPart(orderId, ORDER_PREFIX);
+		if (key <= 0) {
+			return -1;
+		}
+		int index = findIndex(key);
+		return keys[index] == key ? slots[index] : -1;
+	}
+
+	// Dò tuyến tính: trả về ô chứa key hoặc ô trống đầu tiên
+	private int findIndex(long key) {
+		int index = homeIndex(key);
+		while (keys[index] != 0 && keys[index] != key) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+
+	private int homeIndex(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+	}
+
+	private void grow() {
+		int capacity = statuses.length * 2;
+		productCodes = Arrays.copyOf(productCodes, capacity);
+		quantities = Arrays.copyOf(quantities, capacity);
+		transactionNumbers = Arrays.copyOf(transactionNumbers, capacity);
+		trackingNumbers = Arrays.copyOf(trackingNumbers, capacity);
+		statuses = Arrays.copyOf(statuses, capacity);
+
+		long[] oldKeys = keys;
+		int[] oldSlots = slots;
+		keys = new long[capacity * 2];
+		slots = new int[capacity * 2];
+		mask = capacity * 2 - 1;
+		shift = 64 - Integer.numberOfTrailingZeros(capacity * 2);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != 0) {
+				int index = findIndex(oldKeys[i]);
+				keys[index] = oldKeys[i];
+				slots[index] = oldSlots[i];
+			}
+		}
+	}
+
+	private static long encode(String id, String prefix, int slot, Map<Integer, String> overflow) {
+		overflow.remove(slot);
+		if (id == null) {
+			return NO_ID;
+		}
+		long number = numericPart(id, prefix);
+		if (number < 0) {
+			overflow.put(slot, id);
+			return OVERFLOW_ID;
+		}
+		return number;
+	}
+
+	private static String decode(long number, String prefix, int slot, Map<Integer, String> overflow) {
+		if (number == NO_ID) {
+			return null;
+		}
+		if (number == OVERFLOW_ID) {
+			return overflow.get(slot);
+		}
+		return prefix + number;
+	}
+
+	// "ORD123" -> 123, nhận mọi giá trị long không âm (ID Snowflake tới 19 chữ số);
+	// -1 nếu null, sai tiền tố, không phải số, có số 0 đứng đầu hoặc vượt Long.MAX_VALUE
+	private static long numericPart(String id, String prefix) {
+		if (id == null) {
+			return -1;
+		}
+		int length = id.length();
+		if (!id.startsWith(prefix) || length == prefix.length()
+				|| (id.charAt(prefix.length()) == '0' && length > prefix.length() + 1)) {
+			return -1;
+		}
+		long number = 0;
+		for (int i = prefix.length(); i < length; i++) {
+			char c = id.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			int digit = c - '0';
+			if (number > (Long.MAX_VALUE - digit) / 10) {
+				return -1;
+			}
+			number = number * 10 + digit;
+		}
+		return number;
+	}
+}
@@ -7,7 +7,19 @@ public class PaymentProcessor {
 
 	public String chargePayment(String cardNumber, double amount) {
 		System.out.println("  [Payment] Charging $" + amount + " to card: " + cardNumber);
-		return "TXN" + System.currentTimeMillis();
+		return IdGenerator.getDefault().nextId("TXN");
+	}
+
+	/**
+	 * Trừ tiền nhiều thẻ trong một lần gọi; phần tử null nghĩa là giao dịch đó thất bại.
+	 */
+	public String[] chargePayments(String[] cardNumbers, double[] amounts) {
+		System.out.println("  [Payment] Charging batch of " + cardNumbers.length + " payments");
+		String[] transactionIds = new String[cardNumbers.length];
+		for (int i = 0; i < cardNumbers.length; i++) {
+			transactionIds[i] = IdGenerator.getDefault().nextId("TXN");
+		}
+		return transactionIds;
 	}
 
 	public boolean refundPayment(String transactionId) {
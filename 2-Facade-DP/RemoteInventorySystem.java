@@ -0,0 +1,62 @@
+/**
+ * InventorySystem chạy ở dịch vụ từ xa, gọi qua HedgedHttpClient.
+ * Lỗi mạng/timeout được ném ra dưới dạng IllegalStateException để facade bù trừ như lỗi cục bộ.
+ */
+public class RemoteInventorySystem extends InventorySystem {
+
+	private final HedgedHttpClient client;
+
+	public RemoteInventorySystem(HedgedHttpClient client) {
+		super(false);
+		this.client = client;
+	}
+
+	@Override
+	public void addStock(String productId, int quantity) {
+		client.post("inventory/add", "sku", productId, "qty", String.valueOf(quantity));
+	}
+
+	@Override
+	public void addStock(String productId, int quantity, int stripes) {
+		addStock(productId, quantity);
+	}
+
+	@Override
+	public boolean checkStock(String productId, int quantity) {
+		return Boolean.parseBoolean(client.get("inventory/check", "sku", productId, "qty", String.valueOf(quantity)));
+	}
+
+	@Override
+	public boolean reserveProduct(String productId, int quantity) {
+		return Boolean.parseBoolean(client.post("inventory/reserve", "sku", productId, "qty", String.valueOf(quantity)));
+	}
+
+	@Override
+	public void releaseProduct(String productId, int quantity) {
+		client.post("inventory/release", "sku", productId, "qty", String.valueOf(quantity));
+	}
+
+	@Override
+	public long tryReserve(String productId, int quantity) {
+		return Long.parseLong(client.post("inventory/try-reserve", "sku", productId, "qty", String.valueOf(quantity)));
+	}
+
+	@Override
+	public boolean confirmReservation(long reservationId) {
+		return Boolean.parseBoolean(client.post("inventory/confirm", "id", String.valueOf(reservationId)));
+	}
+
+	@Override
+	public boolean cancelReservation(long reservationId) {
+		return Boolean.parseBoolean(client.post("inventory/cancel", "id", String.valueOf(reservationId)));
+	}
+
+	@Override
+	public long getAvailableStock(String productId) {
+		return Long.parseLong(client.get("inventory/available", "sku", productId));
+	}
+
+	public HedgedHttpClient getClient() {
+		return client;
+	}
+}
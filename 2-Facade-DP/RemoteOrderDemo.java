@@ -0,0 +1,47 @@
+/**
+ * Demo facade với các hệ thống con từ xa (StandInServer): so sánh độ trễ placeOrder
+ * khi có và không có hedging trên cùng một server có đuôi độ trễ.
+ */
+public class RemoteOrderDemo {
+
+	private static final int ORDERS = 40;
+
+	public static void main(String[] args) throws Exception {
+		// Tắt Nagle cho HttpServer của demo (phải đặt trước khi tạo server), tránh trễ ~40ms do delayed ACK
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		try (StandInServer server = new StandInServer(new InventorySystem(), new PaymentProcessor(),
+				new ShippingService(), 2, 150, 0.05)) {
+			System.out.println("--- Remote subsystems without hedging ---");
+			LatencySnapshot plain = placeOrders(server, false);
+			System.out.println("\n--- Remote subsystems with hedging ---");
+			LatencySnapshot hedged = placeOrders(server, true);
+
+			System.out.println("\n--- placeOrder latency over " + ORDERS + " orders ---");
+			System.out.println("  Without hedging: " + plain);
+			System.out.println("  With hedging:    " + hedged);
+		}
+	}
+
+	private static LatencySnapshot placeOrders(StandInServer server, boolean hedging) {
+		HedgedHttpClient client = new HedgedHttpClient(server.getBaseUri(), 1_000, hedging);
+		RemoteInventorySystem inventory = new RemoteInventorySystem(client);
+		OrderFacade orderFacade = new OrderFacade(inventory, new RemotePaymentProcessor(client),
+				new RemoteShippingService(client), new NotificationService());
+		inventory.addStock("LAPTOP-X1", ORDERS);
+		// Khởi động: đủ mẫu độ trễ để client biết p95 trước khi đo
+		for (int i = 0; i < 20; i++) {
+			inventory.getAvailableStock("LAPTOP-X1");
+		}
+
+		for (int i = 0; i < ORDERS; i++) {
+			orderFacade.placeOrder(
+					"CUST" + i, "LAPTOP-X1", 1,
+					"4532-1234-5678", "123",
+					"123 Main St, Hanoi",
+					"customer@email.com",
+					"+84-123-456-789");
+		}
+		System.out.println("  " + client);
+		return orderFacade.getMetrics().snapshot(OrderMetrics.Stage.TOTAL);
+	}
+}
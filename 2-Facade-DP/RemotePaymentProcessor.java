@@ -0,0 +1,98 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * PaymentProcessor chạy ở dịch vụ từ xa, gọi qua HedgedHttpClient.
+ * Lệnh trừ tiền được hedging an toàn nhờ Idempotency-Key.
+ *
+ * Khi lệnh trừ tiền lỗi/timeout, tiền có thể đã bị trừ mà bên gọi không có mã giao dịch để hoàn:
+ * client tra lại lệnh theo Idempotency-Key và hoàn tiền nếu đã trừ; không tra hoặc hoàn được thì
+ * key được ghi vào getInDoubtCharges() để đối soát.
+ */
+public class RemotePaymentProcessor extends PaymentProcessor {
+
+	private static final int LOOKUP_ATTEMPTS = 3;
+
+	private final HedgedHttpClient client;
+	private final Queue<String> inDoubtCharges = new ConcurrentLinkedQueue<>();
+
+	public RemotePaymentProcessor(HedgedHttpClient client) {
+		this.client = client;
+	}
+
+	@Override
+	public boolean validatePaymentInfo(String cardNumber, String cvv, double amount) {
+		if (cardNumber == null || cardNumber.isEmpty()) {
+			return false;
+		}
+		return Boolean.parseBoolean(client.get("payment/validate", "card", cardNumber,
+				"cvv", cvv, "amount", String.valueOf(amount)));
+	}
+
+	@Override
+	public String chargePayment(String cardNumber, double amount) {
+		// Server trả 204 khi giao dịch thất bại, client đổi thành null
+		String idempotencyKey = UUID.randomUUID().toString();
+		try {
+			return client.postIdempotent("payment/charge", idempotencyKey, "card", cardNumber, "amount", String.valueOf(amount));
+		} catch (IllegalStateException e) {
+			reverseCharge(idempotencyKey);
+			throw e;
+		}
+	}
+
+	// Tra lệnh trừ tiền theo key (đồng thời chặn bản gửi đến muộn) và hoàn tiền nếu đã trừ;
+	// lệnh tra cứu lặp lại an toàn nên được thử lại vài lần
+	private void reverseCharge(String idempotencyKey) {
+		for (int attempt = 0; attempt < LOOKUP_ATTEMPTS; attempt++) {
+			String transactionId;
+			try {
+				transactionId = client.get("payment/charge-status", "key", idempotencyKey);
+			} catch (IllegalStateException e) {
+				continue;
+			}
+			try {
+				if (transactionId == null || refundPayment(transactionId)) {
+					return;
+				}
+			} catch (IllegalStateException e) {
+				// Hoàn tiền lỗi: không thử lại để tránh hoàn hai lần
+			}
+			break;
+		}
+		inDoubtCharges.add(idempotencyKey);
+		System.out.println("  [Payment] ERROR: Charge " + idempotencyKey + " is in doubt - reconcile manually");
+	}
+
+	/**
+	 * Idempotency-Key của các lệnh trừ tiền lỗi mà không xác định/hoàn được
+	 */
+	public List<String> getInDoubtCharges() {
+		return new ArrayList<>(inDoubtCharges);
+	}
+
+	@Override
+	public String[] chargePayments(String[] cardNumbers, double[] amounts) {
+		String[] transactionIds = new String[cardNumbers.length];
+		for (int i = 0; i < cardNumbers.length; i++) {
+			try {
+				transactionIds[i] = chargePayment(cardNumbers[i], amounts[i]);
+			} catch (IllegalStateException e) {
+				transactionIds[i] = null;
+			}
+		}
+		return transactionIds;
+	}
+
+	@Override
+	public boolean refundPayment(String transactionId) {
+		return Boolean.parseBoolean(client.post("payment/refund", "txn", transactionId));
+	}
+
+	public HedgedHttpClient getClient() {
+		return client;
+	}
+}
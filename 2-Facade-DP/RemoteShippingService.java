@@ -0,0 +1,30 @@
+/**
+ * ShippingService chạy ở dịch vụ từ xa, gọi qua HedgedHttpClient.
+ */
+public class RemoteShippingService extends ShippingService {
+
+	private final HedgedHttpClient client;
+
+	public RemoteShippingService(HedgedHttpClient client) {
+		this.client = client;
+	}
+
+	@Override
+	public double calculateShippingCost(String address, double weight) {
+		return Double.parseDouble(client.get("shipping/quote", "address", address, "weight", String.valueOf(weight)));
+	}
+
+	@Override
+	public String createShipment(String address, String productId) {
+		return client.post("shipping/create", "address", address, "sku", productId);
+	}
+
+	@Override
+	public void cancelShipment(String trackingNumber) {
+		client.post("shipping/cancel", "tracking", trackingNumber);
+	}
+
+	public HedgedHttpClient getClient() {
+		return client;
+	}
+}
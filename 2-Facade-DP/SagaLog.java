@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Nhật ký saga ghi trước (write-ahead), chỉ ghi nối, một bản ghi mỗi dòng:
+ * orderId \t step \t argument
+ *
+ * - Ý định (BEGIN, CHARGE, SHIP và các bước bù trừ REFUND, CANCEL-SHIPMENT, RELEASE, CANCEL-RESERVATION)
+ *   được ghi và fsync TRƯỚC khi bước đó chạy
+ * - Kết quả (RESERVED, CHARGED, ...) được ghi không chờ; bản ghi ý định tiếp theo sẽ đảm bảo chúng bền vững
+ * - COMPLETED được ghi bền vững (logCompleted) trước khi báo khách hàng đơn đã thành công
+ * - Group commit: một luồng ghi gom mọi bản ghi đang chờ của các đơn đồng thời và dùng chung một fsync
+ *
+ * Khi khởi động, loadUnfinished() dựng lại các saga chưa COMPLETED/COMPENSATED/RECONCILE để bù trừ.
+ * Nhật ký chỉ bao phủ OrderFacade.placeOrder; placeOrderAsync và placeOrders không ghi nhật ký.
+ */
+public class SagaLog implements AutoCloseable {
+
+	public static final String BEGIN = "BEGIN";
+	public static final String RESERVED = "RESERVED";
+	public static final String CHARGE = "CHARGE";
+	public static final String CHARGED = "CHARGED";
+	public static final String CONFIRMED = "CONFIRMED";
+	public static final String SHIP = "SHIP";
+	public static final String SHIPPED = "SHIPPED";
+	public static final String COMPLETED = "COMPLETED";
+	public static final String COMPENSATED = "COMPENSATED";
+	public static final String REFUND = "REFUND";
+	public static final String REFUNDED = "REFUNDED";
+	public static final String CANCEL_SHIPMENT = "CANCEL-SHIPMENT";
+	public static final String SHIPMENT_CANCELLED = "SHIPMENT-CANCELLED";
+	public static final String RELEASE = "RELEASE";
+	public static final String RELEASED = "RELEASED";
+	public static final String CANCEL_RESERVATION = "CANCEL-RESERVATION";
+	public static final String RESERVATION_CANCELLED = "RESERVATION-CANCELLED";
+	// Saga được chuyển sang đối soát thủ công khi khôi phục (không bù trừ tự động)
+	public static final String RECONCILE = "RECONCILE";
+
+	private static final PendingWrite SHUTDOWN = new PendingWrite(new byte[0], false);
+
+	private final Path file;
+	private final FileChannel channel;
+	private final LinkedBlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+	private final Thread writer;
+	private volatile boolean closed;
+	private volatile long fsyncCount;
+	private volatile long recordCount;
+
+	public SagaLog(Path file) throws IOException {
+		this.file = file;
+		truncateTornTail(file);
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+		this.writer = new Thread(this::writeLoop, "saga-log-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Ghi một ý định và chờ tới khi nó đã được fsync.
+	 */
+	public void logIntent(String orderId, String step, String argument) {
+		append(orderId, step, argument, true).join();
+	}
+
+	/**
+	 * Ghi COMPLETED và chờ tới khi nó đã được fsync (dùng chung group commit với các ý định).
+	 */
+	public void logCompleted(String orderId) {
+		append(orderId, COMPLETED, null, true).join();
+	}
+
+	/**
+	 * Ghi một kết quả, không chờ fsync.
+	 */
+	public void logResult(String orderId, String step, String argument) {
+		append(orderId, step, argument, false);
+	}
+
+	private CompletableFuture<Void> append(String orderId, String step, String argument, boolean durable) {
+		if (closed) {
+			throw new IllegalStateException("Saga log is closed");
+		}
+		String line = orderId + "\t" + step + "\t" + (argument == null ? "" : argument) + "\n";
+		PendingWrite write = new PendingWrite(line.getBytes(StandardCharsets.UTF_8), durable);
+		queue.add(write);
+		return write.done;
+	}
+
+	private void writeLoop() {
+		List<PendingWrite> batch = new ArrayList<>();
+		while (true) {
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				return;
+			}
+			queue.drainTo(batch);
+			boolean shutdown = batch.remove(SHUTDOWN);
+			try {
+				int size = 0;
+				boolean durable = false;
+				for (PendingWrite write : batch) {
+					size += write.bytes.length;
+					durable |= write.durable;
+				}
+				ByteBuffer buffer = ByteBuffer.allocate(size);
+				for (PendingWrite write : batch) {
+					buffer.put(write.bytes);
+				}
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				if (durable || shutdown) {
+					channel.force(false);
+					fsyncCount++;
+				}
+				recordCount += batch.size();
+				for (PendingWrite write : batch) {
+					write.done.complete(null);
+				}
+			} catch (IOException e) {
+				for (PendingWrite write : batch) {
+					write.done.completeExceptionally(e);
+				}
+			}
+			batch.clear();
+			if (shutdown) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Bỏ phần sau ký tự xuống dòng cuối cùng (bản ghi bị cắt dở khi crash),
+	 * để bản ghi mới không bị nối vào mảnh vỡ đó.
+	 */
+	private static void truncateTornTail(Path file) throws IOException {
+		if (!Files.exists(file)) {
+			return;
+		}
+		try (FileChannel repair = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			long end = repair.size();
+			ByteBuffer chunk = ByteBuffer.allocate(4096);
+			while (end > 0) {
+				long start = Math.max(0, end - chunk.capacity());
+				chunk.clear().limit((int) (end - start));
+				while (chunk.hasRemaining()) {
+					if (repair.read(chunk, start + chunk.position()) < 0) {
+						break;
+					}
+				}
+				for (int i = chunk.position() - 1; i >= 0; i--) {
+					if (chunk.get(i) == '\n') {
+						if (start + i + 1 < repair.size()) {
+							repair.truncate(start + i + 1);
+						}
+						return;
+					}
+				}
+				end = start;
+			}
+			repair.truncate(0);
+		}
+	}
+
+	/**
+	 * Đọc toàn bộ nhật ký và trả về các saga chưa kết thúc, theo thứ tự bắt đầu.
+	 * Dòng cuối không có ký tự xuống dòng là bản ghi bị cắt dở khi crash và bị bỏ qua.
+	 * Bản ghi có tham số hỏng không làm dừng việc khôi phục: saga đó được đánh dấu malformed.
+	 */
+	public List<OrderSaga> loadUnfinished() throws IOException {
+		Map<String, OrderSaga> sagas = new LinkedHashMap<>();
+		String content = Files.readString(file, StandardCharsets.UTF_8);
+		String complete = content.substring(0, content.lastIndexOf('\n') + 1);
+		for (String line : complete.split("\n")) {
+			String[] fields = line.split("\t", -1);
+			if (fields.length < 3) {
+				continue;
+			}
+			String orderId = fields[0];
+			String step = fields[1];
+			if (BEGIN.equals(step)) {
+				sagas.put(orderId, parseBegin(orderId, fields[2]));
+			} else if (COMPLETED.equals(step) || COMPENSATED.equals(step) || RECONCILE.equals(step)) {
+				sagas.remove(orderId);
+			} else if (sagas.containsKey(orderId)) {
+				OrderSaga saga = sagas.get(orderId);
+				try {
+					saga.apply(step, fields[2]);
+				} catch (NumberFormatException e) {
+					saga.markMalformed();
+				}
+			}
+		}
+		return new ArrayList<>(sagas.values());
+	}
+
+	// Tham số BEGIN là "productId quantity"; tách ở khoảng trắng cuối vì productId có thể chứa khoảng trắng
+	private static OrderSaga parseBegin(String orderId, String argument) {
+		int separator = argument.lastIndexOf(' ');
+		if (separator > 0) {
+			try {
+				return new OrderSaga(orderId, argument.substring(0, separator),
+						Integer.parseInt(argument.substring(separator + 1)));
+			} catch (NumberFormatException e) {
+				// rơi xuống saga malformed bên dưới
+			}
+		}
+		OrderSaga saga = new OrderSaga(orderId, argument, 0);
+		saga.markMalformed();
+		return saga;
+	}
+
+	public long getFsyncCount() {
+		return fsyncCount;
+	}
+
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		queue.add(SHUTDOWN);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		channel.close();
+	}
+
+	private static class PendingWrite {
+		final byte[] bytes;
+		final boolean durable;
+		final CompletableFuture<Void> done = new CompletableFuture<>();
+
+		PendingWrite(byte[] bytes, boolean durable) {
+			this.bytes = bytes;
+			this.durable = durable;
+		}
+	}
+}
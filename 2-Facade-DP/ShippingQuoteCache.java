@@ -0,0 +1,127 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Bộ nhớ đệm báo giá vận chuyển:
+ * - Giới hạn số phần tử, loại bỏ theo LRU (LinkedHashMap access-order)
+ * - Mỗi báo giá hết hạn sau ttlMillis
+ * - Nhiều luồng cùng trượt (miss) một khóa sẽ dùng chung một lần tính (coalescing):
+ *   luồng đầu tiên tính, các luồng sau chờ cùng một CompletableFuture
+ *
+ * Lock chỉ giữ trong lúc tra/ghi map, không giữ trong lúc tính báo giá.
+ */
+public class ShippingQuoteCache {
+
+	private final int maxEntries;
+	private final long ttlNanos;
+	private final Map<String, Entry> entries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public ShippingQuoteCache(int maxEntries, long ttlMillis) {
+		this.maxEntries = maxEntries;
+		this.ttlNanos = ttlMillis * 1_000_000L;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > ShippingQuoteCache.this.maxEntries) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public double get(String key, DoubleSupplier loader) {
+		Entry entry;
+		boolean owner = false;
+		synchronized (entries) {
+			entry = entries.get(key);
+			long now = System.nanoTime();
+			if (entry != null && now - entry.createdNanos < ttlNanos) {
+				if (entry.quote.isDone()) {
+					hits.increment();
+				} else {
+					coalesced.increment();
+				}
+			} else {
+				entry = new Entry(now);
+				entries.put(key, entry);
+				misses.increment();
+				owner = true;
+			}
+		}
+
+		if (owner) {
+			try {
+				entry.quote.complete(loader.getAsDouble());
+			} catch (Throwable e) {
+				// Kể cả Error: nếu không hoàn thành future, mọi luồng đang chờ cùng key sẽ treo mãi
+				entry.quote.completeExceptionally(e);
+				synchronized (entries) {
+					entries.remove(key, entry);
+				}
+				throw e;
+			}
+		}
+		try {
+			return entry.quote.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		}
+	}
+
+	public void invalidateAll() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "ShippingQuoteCache[size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+				+ ", coalesced=" + getCoalescedCount() + ", evictions=" + getEvictionCount() + "]";
+	}
+
+	private static class Entry {
+		final long createdNanos;
+		final CompletableFuture<Double> quote = new CompletableFuture<>();
+
+		Entry(long createdNanos) {
+			this.createdNanos = createdNanos;
+		}
+	}
+}
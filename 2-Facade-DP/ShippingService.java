@@ -1,3 +1,5 @@
+import java.util.Locale;
+
 public class ShippingService {
 
 	public double calculateShippingCost(String address, double weight) {
@@ -7,10 +9,18 @@ public class ShippingService {
 
 	public String createShipment(String address, String productId) {
 		System.out.println("  [Shipping] Creating shipment to: " + address);
-		return "SHIP" + System.currentTimeMillis();
+		return IdGenerator.getDefault().nextId("SHIP");
 	}
 
 	public void cancelShipment(String trackingNumber) {
 		System.out.println("  [Shipping] Cancelling shipment: " + trackingNumber);
 	}
+
+	/**
+	 * Khu vực giao hàng = phần cuối của địa chỉ (thành phố), đã chuẩn hóa
+	 */
+	public static String regionOf(String address) {
+		int comma = address.lastIndexOf(',');
+		return address.substring(comma + 1).trim().toLowerCase(Locale.ROOT);
+	}
 }
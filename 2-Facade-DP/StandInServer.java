@@ -0,0 +1,207 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Server HTTP cục bộ đóng vai các dịch vụ inventory / payment / shipping từ xa,
+ * chuyển tiếp tới các hệ thống con cục bộ. Dùng cho demo và thử nghiệm các client Remote*.
+ *
+ * Mỗi request bị trì hoãn baseLatencyMillis, thỉnh thoảng (tỉ lệ tailRate) chậm tới tailLatencyMillis
+ * để mô phỏng đuôi độ trễ. Request POST trùng Idempotency-Key chỉ được thực hiện một lần
+ * (nhớ tối đa MAX_IDEMPOTENCY_KEYS key gần nhất). Handler trả về null thì response là 204 không có body.
+ * GET /payment/charge-status?key=... trả về mã giao dịch của lệnh trừ tiền mang key đó (204 nếu không trừ tiền)
+ * và chặn mọi lệnh trừ tiền đến muộn với key này.
+ *
+ * Header và body được ghi riêng nên khi bật Nagle mỗi response có thể trễ ~40ms do delayed ACK;
+ * chương trình dùng server nên đặt -Dsun.net.httpserver.nodelay=true (xem RemoteOrderDemo).
+ */
+public class StandInServer implements AutoCloseable {
+
+	private static final int MAX_IDEMPOTENCY_KEYS = 10_000;
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final long baseLatencyMillis;
+	private final long tailLatencyMillis;
+	private final double tailRate;
+	private final Map<String, CompletableFuture<String>> idempotentResponses = new ConcurrentHashMap<>();
+	// Thứ tự các key đã nhận, để bỏ key cũ nhất khi vượt giới hạn
+	private final Queue<String> idempotencyKeys = new ConcurrentLinkedQueue<>();
+
+	public StandInServer(InventorySystem inventory, PaymentProcessor payment, ShippingService shipping,
+	                     long baseLatencyMillis, long tailLatencyMillis, double tailRate) throws IOException {
+		this.baseLatencyMillis = baseLatencyMillis;
+		this.tailLatencyMillis = tailLatencyMillis;
+		this.tailRate = tailRate;
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.executor = Executors.newFixedThreadPool(16, runnable -> {
+			Thread thread = new Thread(runnable, "stand-in-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+
+		route("/inventory/add", p -> {
+			inventory.addStock(p.get("sku"), Integer.parseInt(p.get("qty")));
+			return "OK";
+		});
+		route("/inventory/check", p -> String.valueOf(inventory.checkStock(p.get("sku"), Integer.parseInt(p.get("qty")))));
+		route("/inventory/available", p -> String.valueOf(inventory.getAvailableStock(p.get("sku"))));
+		route("/inventory/reserve", p -> String.valueOf(inventory.reserveProduct(p.get("sku"), Integer.parseInt(p.get("qty")))));
+		route("/inventory/release", p -> {
+			inventory.releaseProduct(p.get("sku"), Integer.parseInt(p.get("qty")));
+			return "OK";
+		});
+		route("/inventory/try-reserve", p -> String.valueOf(inventory.tryReserve(p.get("sku"), Integer.parseInt(p.get("qty")))));
+		route("/inventory/confirm", p -> String.valueOf(inventory.confirmReservation(Long.parseLong(p.get("id")))));
+		route("/inventory/cancel", p -> String.valueOf(inventory.cancelReservation(Long.parseLong(p.get("id")))));
+
+		route("/payment/validate", p -> String.valueOf(payment.validatePaymentInfo(p.get("card"), p.get("cvv"),
+				Double.parseDouble(p.get("amount")))));
+		route("/payment/charge", p -> payment.chargePayment(p.get("card"), Double.parseDouble(p.get("amount"))));
+		route("/payment/refund", p -> String.valueOf(payment.refundPayment(p.get("txn"))));
+		route("/payment/charge-status", p -> lookupIdempotent(p.get("key")));
+
+		route("/shipping/quote", p -> String.valueOf(shipping.calculateShippingCost(p.get("address"),
+				Double.parseDouble(p.get("weight")))));
+		route("/shipping/create", p -> shipping.createShipment(p.get("address"), p.get("sku")));
+		route("/shipping/cancel", p -> {
+			shipping.cancelShipment(p.get("tracking"));
+			return "OK";
+		});
+
+		server.start();
+	}
+
+	public URI getBaseUri() {
+		return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+	}
+
+	private void route(String path, Function<Map<String, String>, String> handler) {
+		server.createContext(path, exchange -> {
+			try {
+				simulateLatency();
+				Map<String, String> params = parse("GET".equals(exchange.getRequestMethod())
+						? exchange.getRequestURI().getRawQuery()
+						: new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+				String key = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+				String body;
+				if (key == null) {
+					body = handler.apply(params);
+				} else {
+					CompletableFuture<String> response = new CompletableFuture<>();
+					CompletableFuture<String> previous = idempotentResponses.putIfAbsent(key, response);
+					if (previous == null) {
+						rememberKey(key);
+						try {
+							body = handler.apply(params);
+						} catch (Throwable e) {
+							// Kể cả Error, để các request trùng key đang chờ không treo
+							response.completeExceptionally(e);
+							idempotentResponses.remove(key, response);
+							throw e;
+						}
+						response.complete(body);
+					} else {
+						body = previous.join();
+					}
+				}
+				respond(exchange, 200, body);
+			} catch (RuntimeException e) {
+				respond(exchange, 500, String.valueOf(e.getMessage()));
+			}
+		});
+	}
+
+	/**
+	 * Kết quả của lệnh ghi mang key (chờ nếu đang chạy), null nếu lệnh lỗi hoặc chưa tới.
+	 * Key chưa tới được ghi nhận với kết quả null để lệnh đến muộn không được thực hiện nữa.
+	 */
+	private String lookupIdempotent(String key) {
+		if (key == null) {
+			throw new IllegalArgumentException("Missing key");
+		}
+		CompletableFuture<String> previous = idempotentResponses.putIfAbsent(key, CompletableFuture.completedFuture(null));
+		if (previous == null) {
+			rememberKey(key);
+			return null;
+		}
+		try {
+			return previous.join();
+		} catch (CompletionException e) {
+			return null;
+		}
+	}
+
+	private void rememberKey(String key) {
+		idempotencyKeys.add(key);
+		while (idempotentResponses.size() > MAX_IDEMPOTENCY_KEYS) {
+			String oldest = idempotencyKeys.poll();
+			if (oldest == null) {
+				break;
+			}
+			idempotentResponses.remove(oldest);
+		}
+	}
+
+	private void simulateLatency() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long millis = random.nextDouble() < tailRate ? tailLatencyMillis : baseLatencyMillis;
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static Map<String, String> parse(String form) {
+		Map<String, String> params = new HashMap<>();
+		if (form == null || form.isEmpty()) {
+			return params;
+		}
+		for (String pair : form.split("&")) {
+			int eq = pair.indexOf('=');
+			if (eq > 0) {
+				params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+						URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+			}
+		}
+		return params;
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		if (body == null) {
+			exchange.sendResponseHeaders(204, -1);
+			exchange.close();
+			return;
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdown();
+	}
+}
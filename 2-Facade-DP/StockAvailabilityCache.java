@@ -0,0 +1,121 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bộ nhớ đệm đọc xuyên (read-through) cho số lượng khả dụng của từng SKU:
+ * - Mỗi SKU có một version; giá trị đệm chỉ dùng được khi version lúc tải còn khớp
+ *   và chưa quá maxStalenessMillis
+ * - invalidate() chỉ tăng version khi có giá trị đệm còn hiệu lực hoặc đang tải, nên SKU nóng
+ *   bị giữ chỗ liên tục không phải ghi version ở mỗi lần trừ kho
+ * - Nhiều luồng cùng trượt một SKU dùng chung một lần tải
+ */
+public class StockAvailabilityCache {
+
+	private final long maxStalenessNanos;
+	private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+
+	public StockAvailabilityCache(long maxStalenessMillis) {
+		this.maxStalenessNanos = maxStalenessMillis * 1_000_000L;
+	}
+
+	public long get(String productId, ToLongFunction<String> loader) {
+		Slot slot = slots.computeIfAbsent(productId, sku -> new Slot());
+		Entry entry = slot.entry;
+		if (entry != null && entry.version == slot.version.get()
+				&& System.nanoTime() - entry.loadedNanos < maxStalenessNanos) {
+			hits.increment();
+			return entry.available;
+		}
+
+		CompletableFuture<Long> load = new CompletableFuture<>();
+		CompletableFuture<Long> inFlight = slot.loading.compareAndExchange(null, load);
+		if (inFlight != null) {
+			coalesced.increment();
+			try {
+				return inFlight.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+			}
+		}
+
+		misses.increment();
+		try {
+			// Đọc version trước khi tải: thay đổi xảy ra trong lúc tải sẽ làm giá trị này hết hiệu lực
+			long version = slot.version.get();
+			long available = loader.applyAsLong(productId);
+			slot.entry = new Entry(version, available, System.nanoTime());
+			load.complete(available);
+			return available;
+		} catch (Throwable e) {
+			// Kể cả Error, để các luồng đang chờ lần tải này không treo
+			load.completeExceptionally(e);
+			throw e;
+		} finally {
+			slot.loading.set(null);
+		}
+	}
+
+	public void invalidate(String productId) {
+		Slot slot = slots.get(productId);
+		if (slot == null) {
+			return;
+		}
+		// Kiểm tra loading trước entry: lần tải chỉ xóa loading sau khi đã ghi entry
+		if (slot.loading.get() != null) {
+			slot.version.incrementAndGet();
+			return;
+		}
+		Entry entry = slot.entry;
+		if (entry != null && entry.version == slot.version.get()) {
+			slot.version.incrementAndGet();
+		}
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "StockAvailabilityCache[skus=" + slots.size() + ", hits=" + getHitCount() + ", misses="
+				+ getMissCount() + ", coalesced=" + getCoalescedCount() + "]";
+	}
+
+	private static class Slot {
+		final AtomicLong version = new AtomicLong();
+		final AtomicReference<CompletableFuture<Long>> loading = new AtomicReference<>();
+		volatile Entry entry;
+	}
+
+	private static class Entry {
+		final long version;
+		final long available;
+		final long loadedNanos;
+
+		Entry(long version, long available, long loadedNanos) {
+			this.version = version;
+			this.available = available;
+			this.loadedNanos = loadedNanos;
+		}
+	}
+}
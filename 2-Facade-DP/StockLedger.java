@@ -0,0 +1,213 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Sổ kho trong bộ nhớ, không dùng lock:
+ * - Mỗi SKU giữ số lượng khả dụng trong một hoặc nhiều ô (stripe) cập nhật bằng CAS;
+ *   SKU "nóng" dùng nhiều ô để các luồng khác nhau không tranh chấp cùng một biến
+ * - Kiểm tra và giữ chỗ là một thao tác nguyên tử (không bao giờ bán quá số tồn)
+ * - Giữ chỗ có thời hạn: nếu không được xác nhận (thanh toán xong) trước hạn, hàng tự trả lại kho
+ */
+public class StockLedger {
+
+	private static final int CELL_PADDING = 8; // 8 long = 64 byte, tránh false sharing giữa các ô
+
+	private final ConcurrentHashMap<String, SkuStock> stocks = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Long, Reservation> reservations = new ConcurrentHashMap<>();
+	private final long reservationTtlMillis;
+	private final ScheduledExecutorService expiryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "stock-reservation-expiry");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private volatile Consumer<String> changeListener;
+
+	public StockLedger(long reservationTtlMillis) {
+		this.reservationTtlMillis = reservationTtlMillis;
+	}
+
+	/**
+	 * Được gọi với productId mỗi khi tồn kho của SKU thay đổi (nhập, trừ, trả, hết hạn giữ chỗ)
+	 */
+	public void setChangeListener(Consumer<String> changeListener) {
+		this.changeListener = changeListener;
+	}
+
+	private void fireChanged(String productId) {
+		Consumer<String> listener = changeListener;
+		if (listener != null) {
+			listener.accept(productId);
+		}
+	}
+
+	public void addStock(String productId, long quantity) {
+		addStock(productId, quantity, 1);
+	}
+
+	/**
+	 * Nhập thêm hàng; stripes chỉ có tác dụng lần đầu SKU xuất hiện (SKU nóng nên dùng ~số nhân CPU).
+	 */
+	public void addStock(String productId, long quantity, int stripes) {
+		stocks.computeIfAbsent(productId, sku -> new SkuStock(stripes)).put(quantity);
+		fireChanged(productId);
+	}
+
+	public long available(String productId) {
+		SkuStock stock = stocks.get(productId);
+		return stock == null ? 0 : stock.sum();
+	}
+
+	/**
+	 * Kiểm tra và trừ tồn kho trong một thao tác nguyên tử.
+	 */
+	public boolean take(String productId, long quantity) {
+		if (quantity <= 0) {
+			throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+		}
+		SkuStock stock = stocks.get(productId);
+		if (stock == null || !stock.tryTake(quantity)) {
+			return false;
+		}
+		fireChanged(productId);
+		return true;
+	}
+
+	public void release(String productId, long quantity) {
+		stocks.computeIfAbsent(productId, sku -> new SkuStock(1)).put(quantity);
+		fireChanged(productId);
+	}
+
+	/**
+	 * Giữ chỗ có thời hạn.
+	 * @return mã giữ chỗ, hoặc -1 nếu không đủ hàng
+	 */
+	public long reserve(String productId, long quantity) {
+		if (!take(productId, quantity)) {
+			return -1;
+		}
+		// ID Snowflake: không trùng giữa các lần chạy, nên mã giữ chỗ cũ trong SagaLog không thể trỏ nhầm
+		long reservationId = IdGenerator.getDefault().nextId();
+		Reservation reservation = new Reservation(productId, quantity);
+		reservations.put(reservationId, reservation);
+		reservation.expiry = expiryScheduler.schedule(() -> {
+			if (reservations.remove(reservationId, reservation)) {
+				release(productId, quantity);
+				System.out.println("  [Inventory] Reservation " + reservationId + " expired, released "
+						+ quantity + " units of product: " + productId);
+			}
+		}, reservationTtlMillis, TimeUnit.MILLISECONDS);
+		return reservationId;
+	}
+
+	/**
+	 * Xác nhận giữ chỗ (hàng đã bán). Trả về false nếu giữ chỗ đã hết hạn hoặc bị hủy.
+	 */
+	public boolean confirm(long reservationId) {
+		Reservation reservation = reservations.remove(reservationId);
+		if (reservation == null) {
+			return false;
+		}
+		reservation.expiry.cancel(false);
+		return true;
+	}
+
+	/**
+	 * Hủy giữ chỗ và trả hàng về kho. Trả về false nếu giữ chỗ không còn hiệu lực.
+	 */
+	public boolean cancel(long reservationId) {
+		Reservation reservation = reservations.remove(reservationId);
+		if (reservation == null) {
+			return false;
+		}
+		reservation.expiry.cancel(false);
+		release(reservation.productId, reservation.quantity);
+		return true;
+	}
+
+	public int getPendingReservations() {
+		return reservations.size();
+	}
+
+	private static class Reservation {
+		final String productId;
+		final long quantity;
+		volatile ScheduledFuture<?> expiry;
+
+		Reservation(String productId, long quantity) {
+			this.productId = productId;
+			this.quantity = quantity;
+		}
+	}
+
+	/**
+	 * Tồn kho của một SKU chia trên nhiều ô. Mỗi luồng ưu tiên ô "nhà" của mình;
+	 * nếu không ô nào đủ hàng nhưng tổng thì đủ, lấy từng phần từ nhiều ô.
+	 */
+	private static class SkuStock {
+
+		private final int stripes;
+		private final AtomicLongArray cells;
+
+		SkuStock(int stripes) {
+			this.stripes = Math.max(1, stripes);
+			this.cells = new AtomicLongArray(this.stripes * CELL_PADDING);
+		}
+
+		private int home() {
+			return (int) (Thread.currentThread().getId() % stripes);
+		}
+
+		void put(long quantity) {
+			cells.addAndGet(home() * CELL_PADDING, quantity);
+		}
+
+		long sum() {
+			long total = 0;
+			for (int i = 0; i < stripes; i++) {
+				total += cells.get(i * CELL_PADDING);
+			}
+			return total;
+		}
+
+		boolean tryTake(long quantity) {
+			int home = home();
+			for (int i = 0; i < stripes; i++) {
+				int index = ((home + i) % stripes) * CELL_PADDING;
+				long current;
+				while ((current = cells.get(index)) >= quantity) {
+					if (cells.compareAndSet(index, current, current - quantity)) {
+						return true;
+					}
+				}
+			}
+			if (stripes == 1 || sum() < quantity) {
+				return false;
+			}
+			// Không ô nào đủ một mình: lấy từng phần bằng CAS, mỗi ô chỉ lấy đúng phần còn thiếu
+			// (không bao giờ xóa trắng ô khác đang đọc); thiếu thì trả lại phần đã lấy
+			long remaining = quantity;
+			for (int i = 0; i < stripes && remaining > 0; i++) {
+				int index = ((home + i) % stripes) * CELL_PADDING;
+				long current;
+				while ((current = cells.get(index)) > 0) {
+					long part = Math.min(current, remaining);
+					if (cells.compareAndSet(index, current, current - part)) {
+						remaining -= part;
+						break;
+					}
+				}
+			}
+			if (remaining == 0) {
+				return true;
+			}
+			cells.addAndGet(home * CELL_PADDING, quantity - remaining);
+			return false;
+		}
+	}
+}
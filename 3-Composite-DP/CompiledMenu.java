@@ -0,0 +1,177 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Bản "biên dịch" bất biến của một cây menu rất lớn: các node được xếp theo thứ tự pre-order
+ * trong các mảng song song thay vì mỗi node một object giữ ArrayList.
+ * - prices[i]: giá của món theo cent (0 với danh mục), chỉ đổi ra đô la khi đọc
+ * - subtreeEnd[i]: chỉ số ngay sau node cuối cùng của cây con i, nên cây con i là đoạn [i, subtreeEnd[i])
+ * - nameOffsets / descriptionOffsets: vị trí chuỗi trong một mảng char chung
+ * - priceSums: tổng tiền tố của prices (cent, cộng dồn không sai số làm tròn), tổng giá cây con i = priceSums[subtreeEnd[i]] - priceSums[i] - O(1)
+ *
+ * Duyệt cả menu là một vòng lặp tuần tự trên mảng.
+ */
+public class CompiledMenu {
+
+	private final int size;
+	private final long[] prices;
+	private final long[] priceSums;
+	private final int[] subtreeEnd;
+	private final boolean[] category;
+	private final char[] names;
+	private final int[] nameOffsets;
+	private final char[] descriptions;
+	private final int[] descriptionOffsets;
+
+	private CompiledMenu(int size, long[] prices, int[] subtreeEnd, boolean[] category,
+	                     char[] names, int[] nameOffsets, char[] descriptions, int[] descriptionOffsets) {
+		this.size = size;
+		this.prices = prices;
+		this.subtreeEnd = subtreeEnd;
+		this.category = category;
+		this.names = names;
+		this.nameOffsets = nameOffsets;
+		this.descriptions = descriptions;
+		this.descriptionOffsets = descriptionOffsets;
+		this.priceSums = new long[size + 1];
+		for (int i = 0; i < size; i++) {
+			priceSums[i + 1] = priceSums[i] + prices[i];
+		}
+	}
+
+	/**
+	 * Duyệt cây bằng stack tường minh (không đệ quy) để cây sâu không gây StackOverflowError
+	 */
+	public static CompiledMenu compile(MenuComponent root) {
+		int capacity = 1024;
+		long[] prices = new long[capacity];
+		int[] subtreeEnd = new int[capacity];
+		boolean[] category = new boolean[capacity];
+		int[] nameOffsets = new int[capacity + 1];
+		int[] descriptionOffsets = new int[capacity + 1];
+		StringBuilder names = new StringBuilder();
+		StringBuilder descriptions = new StringBuilder();
+
+		// Phần tử stack: node chưa thăm, hoặc Integer = chỉ số danh mục cần chốt subtreeEnd
+		Deque<Object> stack = new ArrayDeque<>();
+		stack.push(root);
+		int size = 0;
+		while (!stack.isEmpty()) {
+			Object top = stack.pop();
+			if (top instanceof Integer) {
+				subtreeEnd[(Integer) top] = size;
+				continue;
+			}
+			if (size == capacity) {
+				capacity *= 2;
+				prices = Arrays.copyOf(prices, capacity);
+				subtreeEnd = Arrays.copyOf(subtreeEnd, capacity);
+				category = Arrays.copyOf(category, capacity);
+				nameOffsets = Arrays.copyOf(nameOffsets, capacity + 1);
+				descriptionOffsets = Arrays.copyOf(descriptionOffsets, capacity + 1);
+			}
+			MenuComponent node = (MenuComponent) top;
+			int index = size++;
+			names.append(node.getName());
+			nameOffsets[index + 1] = names.length();
+			descriptions.append(node.getDescription());
+			descriptionOffsets[index + 1] = descriptions.length();
+			if (node instanceof MenuCategory) {
+				MenuCategory menuCategory = (MenuCategory) node;
+				category[index] = true;
+				stack.push(index);
+				for (int i = menuCategory.getChildCount() - 1; i >= 0; i--) {
+					stack.push(menuCategory.getChild(i));
+				}
+			} else {
+				prices[index] = node.getPriceCents();
+				subtreeEnd[index] = index + 1;
+			}
+		}
+
+		char[] nameChars = new char[names.length()];
+		names.getChars(0, names.length(), nameChars, 0);
+		char[] descriptionChars = new char[descriptions.length()];
+		descriptions.getChars(0, descriptions.length(), descriptionChars, 0);
+		return new CompiledMenu(size, Arrays.copyOf(prices, size), Arrays.copyOf(subtreeEnd, size),
+				Arrays.copyOf(category, size), nameChars, Arrays.copyOf(nameOffsets, size + 1),
+				descriptionChars, Arrays.copyOf(descriptionOffsets, size + 1));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public String getName(int index) {
+		return new String(names, nameOffsets[index], nameOffsets[index + 1] - nameOffsets[index]);
+	}
+
+	public String getDescription(int index) {
+		return new String(descriptions, descriptionOffsets[index],
+				descriptionOffsets[index + 1] - descriptionOffsets[index]);
+	}
+
+	/**
+	 * Chỉ số của node đầu tiên có tên name theo pre-order, -1 nếu không có
+	 */
+	public int indexOf(String name) {
+		for (int i = 0; i < size; i++) {
+			int offset = nameOffsets[i];
+			int length = nameOffsets[i + 1] - offset;
+			if (length == name.length() && matches(offset, name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean matches(int offset, String name) {
+		for (int j = 0; j < name.length(); j++) {
+			if (names[offset + j] != name.charAt(j)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public boolean isCategory(int index) {
+		return category[index];
+	}
+
+	/**
+	 * Chỉ số ngay sau cây con của node index; con đầu tiên (nếu có) là index + 1
+	 */
+	public int getSubtreeEnd(int index) {
+		return subtreeEnd[index];
+	}
+
+	/**
+	 * Giá của món, hoặc tổng giá cây con nếu là danh mục - O(1)
+	 */
+	public double getPrice(int index) {
+		return getPriceCents(index) / 100.0;
+	}
+
+	long getPriceCents(int index) {
+		return priceSums[subtreeEnd[index]] - priceSums[index];
+	}
+
+	public double getTotalPrice() {
+		return size == 0 ? 0.0 : getPrice(0);
+	}
+
+	/**
+	 * In menu giống MenuComponent.display(), bằng một lượt quét tuần tự
+	 */
+	public void display() {
+		for (int i = 0; i < size; i++) {
+			if (category[i]) {
+				System.out.println(getName(i) + " - " + getDescription(i));
+			} else {
+				System.out.println("  - " + getName(i) + " ($" + prices[i] / 100.0 + ")");
+				System.out.println("      " + getDescription(i));
+			}
+		}
+	}
+}
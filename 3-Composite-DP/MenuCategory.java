@@ -5,6 +5,10 @@ public class MenuCategory extends MenuComponent {
 	private String name;
 	private String description;
 	private ArrayList<MenuComponent> menuComponents = new ArrayList<>();
+	// Tổng giá (cent) và số node của cả cây con, cập nhật theo chênh lệch khi thêm/bớt node hoặc đổi giá món;
+	// lưu bằng số nguyên để sau nhiều lần thêm/bớt tổng không bị lệch do sai số dấu phẩy động
+	private long totalCents;
+	private int subtreeSize = 1;
 
 	public MenuCategory(String name, String description) {
 		this.name = name;
@@ -21,23 +25,56 @@ public class MenuCategory extends MenuComponent {
 		return description;
 	}
 
+	/**
+	 * Tổng giá cây con, đọc từ giá trị đã lưu - O(1)
+	 */
 	@Override
 	public double getPrice() {
-		double total = 0.0;
-		for (MenuComponent component : menuComponents) {
-			total += component.getPrice();
-		}
-		return total;
+		return totalCents / 100.0;
+	}
+
+	@Override
+	long getPriceCents() {
+		return totalCents;
 	}
 
+	/**
+	 * Thêm node con; mỗi node chỉ thuộc một danh mục và không được chứa chính danh mục này.
+	 */
 	@Override
 	public void add(MenuComponent component) {
+		if (component.getParent() != null) {
+			throw new IllegalArgumentException(component.getName() + " already belongs to " + component.getParent().getName());
+		}
+		for (MenuCategory ancestor = this; ancestor != null; ancestor = ancestor.getParent()) {
+			if (ancestor == component) {
+				throw new IllegalArgumentException("Cannot add " + component.getName() + " to its own subtree");
+			}
+		}
 		menuComponents.add(component);
+		component.setParent(this);
+		adjustTotals(component.getPriceCents(), component.getSubtreeSize());
 	}
 
 	@Override
 	public void remove(MenuComponent component) {
-		menuComponents.remove(component);
+		if (menuComponents.remove(component)) {
+			component.setParent(null);
+			adjustTotals(-component.getPriceCents(), -component.getSubtreeSize());
+		}
+	}
+
+	@Override
+	public int getSubtreeSize() {
+		return subtreeSize;
+	}
+
+	// Cộng chênh lệch vào danh mục này và mọi danh mục tổ tiên
+	void adjustTotals(long centsDelta, int sizeDelta) {
+		for (MenuCategory category = this; category != null; category = category.getParent()) {
+			category.totalCents += centsDelta;
+			category.subtreeSize += sizeDelta;
+		}
 	}
 
 	@Override
@@ -45,6 +82,10 @@ public class MenuCategory extends MenuComponent {
 		return menuComponents.get(index);
 	}
 
+	public int getChildCount() {
+		return menuComponents.size();
+	}
+
 	@Override
 	public void display() {
 		System.out.println(getName() + " - " + getDescription());
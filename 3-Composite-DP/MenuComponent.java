@@ -1,5 +1,23 @@
 public abstract class MenuComponent {
 
+	// Danh mục chứa node này (null nếu là gốc); MenuCategory.add/remove cập nhật
+	private MenuCategory parent;
+
+	public MenuCategory getParent() {
+		return parent;
+	}
+
+	void setParent(MenuCategory parent) {
+		this.parent = parent;
+	}
+
+	/**
+	 * Số node trong cây con (kể cả node này)
+	 */
+	public int getSubtreeSize() {
+		return 1;
+	}
+
 	public String getName() {
 		throw new UnsupportedOperationException();
 	}
@@ -12,6 +30,13 @@ public abstract class MenuComponent {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Giá tính bằng cent, dùng cho tổng đã lưu của MenuCategory (cộng số nguyên nên không bị sai số dồn)
+	 */
+	long getPriceCents() {
+		return Math.round(getPrice() * 100);
+	}
+
 	public void display() {
 		throw new UnsupportedOperationException();
 	}
@@ -3,11 +3,20 @@ public class MenuItem extends MenuComponent {
 	private String name;
 	private String description;
 	private double price;
+	private long priceCents;
 
 	public MenuItem(String name, String description, double price) {
+		checkPrice(price);
 		this.name = name;
 		this.description = description;
 		this.price = price;
+		this.priceCents = Math.round(price * 100);
+	}
+
+	private static void checkPrice(double price) {
+		if (!Double.isFinite(price)) {
+			throw new IllegalArgumentException("Price must be a finite number: " + price);
+		}
 	}
 
 	@Override
@@ -25,6 +34,25 @@ public class MenuItem extends MenuComponent {
 		return price;
 	}
 
+	@Override
+	long getPriceCents() {
+		return priceCents;
+	}
+
+	/**
+	 * Đổi giá và cộng phần chênh lệch (theo cent) vào tổng của mọi danh mục chứa món này - O(độ sâu)
+	 */
+	public void setPrice(double price) {
+		checkPrice(price);
+		long cents = Math.round(price * 100);
+		long delta = cents - priceCents;
+		this.price = price;
+		this.priceCents = cents;
+		if (getParent() != null) {
+			getParent().adjustTotals(delta, 0);
+		}
+	}
+
 	@Override
 	public void display() {
 		System.out.println("  - " + getName() + " ($" + getPrice() + ")");
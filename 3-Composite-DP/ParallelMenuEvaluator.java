@@ -0,0 +1,293 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Duyệt cây menu song song bằng fork/join:
+ * - Cây con nhỏ hơn threshold node được duyệt tuần tự như MenuComponent.display()/getPrice()
+ * - Danh mục lớn hơn được tách thành các nhóm con liền kề, mỗi nhóm khoảng threshold node
+ *   (dựa trên getSubtreeSize()), mỗi nhóm là một task
+ * - Kết quả các nhóm được gộp theo đúng thứ tự, nên render() cho cùng nội dung với display()
+ * - sum()/computePrice() dùng task riêng cộng dồn kiểu double, không boxing từng món
+ */
+public class ParallelMenuEvaluator {
+
+	/**
+	 * Phép gộp trên cây: giá trị của món, phần đóng góp riêng của danh mục, và cách gộp hai kết quả
+	 * (combine phải có tính kết hợp; được phép sửa và trả về left). Node lá không phải MenuItem được bỏ qua.
+	 */
+	public interface Aggregation<R> {
+		R identity();
+
+		R item(MenuItem item);
+
+		R category(MenuCategory category);
+
+		R combine(R left, R right);
+	}
+
+	private final ForkJoinPool pool;
+	private final int threshold;
+
+	public ParallelMenuEvaluator(ForkJoinPool pool, int threshold) {
+		this.pool = pool;
+		this.threshold = Math.max(1, threshold);
+	}
+
+	public <R> R evaluate(MenuComponent root, Aggregation<R> aggregation) {
+		List<MenuComponent> nodes = new ArrayList<>(1);
+		nodes.add(root);
+		return pool.invoke(new SubtreeTask<>(nodes, aggregation, threshold));
+	}
+
+	/**
+	 * Tổng valueOf(món) trên mọi món trong cây, vd. sum(menu, MenuItem::getPrice)
+	 */
+	public double sum(MenuComponent root, ToDoubleFunction<MenuItem> valueOf) {
+		return sumLeaves(root, leaf -> leaf instanceof MenuItem ? valueOf.applyAsDouble((MenuItem) leaf) : 0.0);
+	}
+
+	/**
+	 * Tính lại tổng giá từ các node lá (không dùng tổng đã lưu trong MenuCategory)
+	 */
+	public double computePrice(MenuComponent root) {
+		return sumLeaves(root, MenuComponent::getPrice);
+	}
+
+	private double sumLeaves(MenuComponent root, ToDoubleFunction<MenuComponent> valueOf) {
+		List<MenuComponent> nodes = new ArrayList<>(1);
+		nodes.add(root);
+		SumTask task = new SumTask(nodes, valueOf, threshold);
+		pool.invoke(task);
+		return task.result;
+	}
+
+	public long countItems(MenuComponent root, Predicate<MenuItem> filter) {
+		return evaluate(root, new Aggregation<Long>() {
+			@Override
+			public Long identity() {
+				return 0L;
+			}
+
+			@Override
+			public Long item(MenuItem item) {
+				return filter.test(item) ? 1L : 0L;
+			}
+
+			@Override
+			public Long category(MenuCategory category) {
+				return 0L;
+			}
+
+			@Override
+			public Long combine(Long left, Long right) {
+				return left + right;
+			}
+		});
+	}
+
+	/**
+	 * Nội dung giống hệt display(), dựng song song theo từng nhóm cây con
+	 */
+	public String render(MenuComponent root) {
+		return evaluate(root, new Aggregation<StringBuilder>() {
+			@Override
+			public StringBuilder identity() {
+				return new StringBuilder();
+			}
+
+			@Override
+			public StringBuilder item(MenuItem item) {
+				return new StringBuilder("  - ").append(item.getName()).append(" ($").append(item.getPrice()).append(")")
+						.append(System.lineSeparator()).append("      ").append(item.getDescription())
+						.append(System.lineSeparator());
+			}
+
+			@Override
+			public StringBuilder category(MenuCategory category) {
+				return new StringBuilder(category.getName()).append(" - ").append(category.getDescription())
+						.append(System.lineSeparator());
+			}
+
+			@Override
+			public StringBuilder combine(StringBuilder left, StringBuilder right) {
+				return left.append(right);
+			}
+		}).toString();
+	}
+
+	public void display(MenuComponent root) {
+		System.out.print(render(root));
+	}
+
+	/**
+	 * Gom các node anh em liền kề thành nhóm khoảng threshold node; trả về một nhóm nếu cả dãy đủ nhỏ
+	 */
+	private static List<List<MenuComponent>> split(List<MenuComponent> siblings, int threshold) {
+		List<List<MenuComponent>> groups = new ArrayList<>();
+		int total = 0;
+		for (MenuComponent node : siblings) {
+			total += node.getSubtreeSize();
+		}
+		if (total <= threshold || siblings.size() == 1) {
+			groups.add(siblings);
+			return groups;
+		}
+		List<MenuComponent> group = new ArrayList<>();
+		int groupSize = 0;
+		for (MenuComponent node : siblings) {
+			if (groupSize > 0 && groupSize + node.getSubtreeSize() > threshold) {
+				groups.add(group);
+				group = new ArrayList<>();
+				groupSize = 0;
+			}
+			group.add(node);
+			groupSize += node.getSubtreeSize();
+		}
+		groups.add(group);
+		return groups;
+	}
+
+	// Một danh mục lớn duy nhất thì cần tách tiếp các con của nó
+	private static boolean isSingleLargeCategory(List<MenuComponent> siblings, int threshold) {
+		return siblings.size() == 1 && siblings.get(0) instanceof MenuCategory
+				&& siblings.get(0).getSubtreeSize() > threshold;
+	}
+
+	private static List<MenuComponent> childrenOf(MenuCategory category) {
+		List<MenuComponent> children = new ArrayList<>(category.getChildCount());
+		for (int i = 0; i < category.getChildCount(); i++) {
+			children.add(category.getChild(i));
+		}
+		return children;
+	}
+
+	/**
+	 * Task cho một dãy node anh em liền kề
+	 */
+	@SuppressWarnings("serial")
+	private static class SubtreeTask<R> extends RecursiveTask<R> {
+
+		private final List<MenuComponent> nodes;
+		private final Aggregation<R> aggregation;
+		private final int threshold;
+
+		SubtreeTask(List<MenuComponent> nodes, Aggregation<R> aggregation, int threshold) {
+			this.nodes = nodes;
+			this.aggregation = aggregation;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected R compute() {
+			R result = aggregation.identity();
+			List<MenuComponent> siblings = nodes;
+			while (isSingleLargeCategory(siblings, threshold)) {
+				MenuCategory category = (MenuCategory) siblings.get(0);
+				result = aggregation.combine(result, aggregation.category(category));
+				siblings = childrenOf(category);
+			}
+
+			List<List<MenuComponent>> groups = split(siblings, threshold);
+			if (groups.size() == 1) {
+				for (MenuComponent node : siblings) {
+					result = aggregation.combine(result, sequential(node));
+				}
+				return result;
+			}
+
+			List<SubtreeTask<R>> tasks = new ArrayList<>(groups.size());
+			for (List<MenuComponent> group : groups) {
+				tasks.add(new SubtreeTask<>(group, aggregation, threshold));
+			}
+
+			for (int i = 1; i < tasks.size(); i++) {
+				tasks.get(i).fork();
+			}
+			result = aggregation.combine(result, tasks.get(0).compute());
+			for (int i = 1; i < tasks.size(); i++) {
+				result = aggregation.combine(result, tasks.get(i).join());
+			}
+			return result;
+		}
+
+		private R sequential(MenuComponent node) {
+			if (node instanceof MenuItem) {
+				return aggregation.item((MenuItem) node);
+			}
+			if (!(node instanceof MenuCategory)) {
+				return aggregation.identity();
+			}
+			MenuCategory category = (MenuCategory) node;
+			R result = aggregation.category(category);
+			for (int i = 0; i < category.getChildCount(); i++) {
+				result = aggregation.combine(result, sequential(category.getChild(i)));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Như SubtreeTask nhưng cộng dồn valueOf(node lá) vào một double, kết quả ở field result
+	 */
+	@SuppressWarnings("serial")
+	private static class SumTask extends RecursiveAction {
+
+		private final List<MenuComponent> nodes;
+		private final ToDoubleFunction<MenuComponent> valueOf;
+		private final int threshold;
+		double result;
+
+		SumTask(List<MenuComponent> nodes, ToDoubleFunction<MenuComponent> valueOf, int threshold) {
+			this.nodes = nodes;
+			this.valueOf = valueOf;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			List<MenuComponent> siblings = nodes;
+			while (isSingleLargeCategory(siblings, threshold)) {
+				siblings = childrenOf((MenuCategory) siblings.get(0));
+			}
+
+			List<List<MenuComponent>> groups = split(siblings, threshold);
+			if (groups.size() == 1) {
+				for (MenuComponent node : siblings) {
+					result += sequential(node);
+				}
+				return;
+			}
+
+			List<SumTask> tasks = new ArrayList<>(groups.size());
+			for (List<MenuComponent> group : groups) {
+				tasks.add(new SumTask(group, valueOf, threshold));
+			}
+			for (int i = 1; i < tasks.size(); i++) {
+				tasks.get(i).fork();
+			}
+			tasks.get(0).compute();
+			result += tasks.get(0).result;
+			for (int i = 1; i < tasks.size(); i++) {
+				tasks.get(i).join();
+				result += tasks.get(i).result;
+			}
+		}
+
+		private double sequential(MenuComponent node) {
+			if (!(node instanceof MenuCategory)) {
+				return valueOf.applyAsDouble(node);
+			}
+			MenuCategory category = (MenuCategory) node;
+			double sum = 0;
+			for (int i = 0; i < category.getChildCount(); i++) {
+				sum += sequential(category.getChild(i));
+			}
+			return sum;
+		}
+	}
+}
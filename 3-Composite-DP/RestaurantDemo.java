@@ -1,3 +1,5 @@
+import java.util.concurrent.ForkJoinPool;
+
 public class RestaurantDemo {
 
 	public static void main(String[] args) {
@@ -56,5 +58,20 @@ public class RestaurantDemo {
 
 		// Calculate total menu value
 		System.out.printf("Total Menu Value: $%.2f%n", restaurantMenu.getPrice());
+
+		// Change a price: totals of every enclosing category are updated in O(depth)
+		((MenuItem) lobster).setPrice(49.00);
+		System.out.printf("After Lobster price change - Seafood: $%.2f, Total: $%.2f%n",
+				seafood.getPrice(), restaurantMenu.getPrice());
+
+		// Compile into flat arrays for very large menus (subtree totals from prefix sums)
+		CompiledMenu compiledMenu = CompiledMenu.compile(restaurantMenu);
+		System.out.printf("Compiled Menu: %d nodes, Main Course: $%.2f, Total: $%.2f%n",
+				compiledMenu.size(), compiledMenu.getPrice(compiledMenu.indexOf("Main Course")), compiledMenu.getTotalPrice());
+
+		// Parallel fork/join evaluation (tiny threshold so even this small menu is split)
+		ParallelMenuEvaluator evaluator = new ParallelMenuEvaluator(ForkJoinPool.commonPool(), 4);
+		System.out.printf("Parallel Recompute: $%.2f, Items over $20: %d%n",
+				evaluator.computePrice(restaurantMenu), evaluator.countItems(restaurantMenu, item -> item.getPrice() > 20));
 	}
 }